@@ -0,0 +1,240 @@
+package com.example.socialapp;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Finds the highest write throughput the cluster sustains while meeting a latency SLO.
+ *
+ * The search drives {@link WriteLoadGenerator} through a series of fixed-rate steps and
+ * records p99 latency and error rate for each one. Two controllers are available:
+ * <ul>
+ *   <li>{@code binary} - doubles the rate until a step fails, then bisects between the last
+ *   passing and first failing rate.</li>
+ *   <li>{@code aimd} - raises the rate by a fraction of itself after every passing step and
+ *   backs off multiplicatively after a failing one, halving that fraction each time, until the
+ *   increase is within tolerance.</li>
+ * </ul>
+ * Every step is written to a throughput-vs-latency curve; the file format follows the
+ * extension of the output path ({@code .json} or CSV otherwise). Each point also records
+ * the operation mix, since likes turn into comments once the unused (user, post) pairs run
+ * out; a step where that happens to more than 5% of like slots is flagged with a warning.
+ * Such a step measured a different workload from the earlier ones.
+ *
+ * Usage: {@code CapacitySearch [p99SloMillis] [maxErrorRate] [stepSeconds] [binary|aimd] [outputFile]}
+ */
+public class CapacitySearch {
+    private static final double DEFAULT_P99_SLO_MILLIS = 50.0;
+    private static final double DEFAULT_MAX_ERROR_RATE = 0.001;
+    private static final int DEFAULT_STEP_SECONDS = 30;
+    private static final double MAX_LIKE_SUBSTITUTION_RATE = 0.05;
+    private static final String DEFAULT_MODE = "binary";
+    private static final String DEFAULT_OUTPUT = "capacity-curve.csv";
+
+    private static final double START_RATE = 70;
+    private static final double MAX_RATE = 1_000_000;
+    private static final double MIN_ACHIEVED_FRACTION = 0.95;
+    private static final double BINARY_TOLERANCE = 0.05;
+    private static final double AIMD_INITIAL_INCREASE = 0.5;
+    private static final double AIMD_DECREASE_FACTOR = 0.7;
+
+    private final WriteLoadGenerator generator;
+    private final double p99SloMillis;
+    private final double maxErrorRate;
+    private final Duration stepDuration;
+    private final List<Step> curve = new ArrayList<>();
+
+    public CapacitySearch(WriteLoadGenerator generator, double p99SloMillis, double maxErrorRate, Duration stepDuration) {
+        this.generator = generator;
+        this.p99SloMillis = p99SloMillis;
+        this.maxErrorRate = maxErrorRate;
+        this.stepDuration = stepDuration;
+    }
+
+    /**
+     * One measured point on the throughput-vs-latency curve.
+     */
+    public static class Step {
+        final double offeredRate;
+        final double achievedRate;
+        final double p50Millis;
+        final double p99Millis;
+        final double maxMillis;
+        final double errorRate;
+        final long likes;
+        final long comments;
+        final long substitutedLikes;
+        final double likeSubstitutionRate;
+        final boolean meetsSlo;
+
+        Step(double offeredRate, double achievedRate, LoadSample sample, boolean meetsSlo) {
+            this.offeredRate = offeredRate;
+            this.achievedRate = achievedRate;
+            this.p50Millis = sample.getLatencies().getPercentileMillis(50.0);
+            this.p99Millis = sample.getP99Millis();
+            this.maxMillis = sample.getLatencies().getMaxMicros() / 1000.0;
+            this.errorRate = sample.getErrorRate();
+            this.likes = sample.getLikes();
+            this.comments = sample.getComments();
+            this.substitutedLikes = sample.getSubstitutedLikes();
+            this.likeSubstitutionRate = sample.getLikeSubstitutionRate();
+            this.meetsSlo = meetsSlo;
+        }
+    }
+
+    private Step measure(double offeredRate) throws InterruptedException {
+        LoadSample sample = generator.runStep(offeredRate, stepDuration);
+        double achievedRate = sample.getCompleted() / (double) stepDuration.getSeconds();
+        boolean meetsSlo = sample.getP99Millis() <= p99SloMillis
+                && sample.getErrorRate() <= maxErrorRate
+                && achievedRate >= offeredRate * MIN_ACHIEVED_FRACTION;
+
+        Step step = new Step(offeredRate, achievedRate, sample, meetsSlo);
+        curve.add(step);
+        System.out.printf(Locale.ROOT, "Offered %.0f ops/sec -> achieved %.0f ops/sec, p99 %.1f ms, errors %.3f%% [%s]%n",
+                step.offeredRate, step.achievedRate, step.p99Millis, step.errorRate * 100,
+                meetsSlo ? "PASS" : "FAIL");
+        System.out.println("  " + generator.describeLikeFilter());
+        if (step.likeSubstitutionRate > MAX_LIKE_SUBSTITUTION_RATE) {
+            System.out.printf(Locale.ROOT, "  WARNING: %.1f%% of likes were sent as comments (%d of %d); " +
+                    "this step measured a comment-heavier mix than intended%n",
+                    step.likeSubstitutionRate * 100, step.substitutedLikes, step.likes + step.substitutedLikes);
+        }
+        return step;
+    }
+
+    /**
+     * Doubles the rate until the SLO is missed, then bisects until the bracket is within tolerance.
+     * Returns the highest passing rate, or 0 if even the starting rate misses the SLO.
+     */
+    public double searchBinary() throws InterruptedException {
+        double passing = 0;
+        double failing = 0;
+        double rate = START_RATE;
+
+        while (rate <= MAX_RATE) {
+            if (measure(rate).meetsSlo) {
+                passing = rate;
+                rate *= 2;
+            } else {
+                failing = rate;
+                break;
+            }
+        }
+        if (failing == 0 || passing == 0) {
+            return passing;
+        }
+
+        while ((failing - passing) / failing > BINARY_TOLERANCE) {
+            double mid = Math.floor((passing + failing) / 2);
+            if (measure(mid).meetsSlo) {
+                passing = mid;
+            } else {
+                failing = mid;
+            }
+        }
+        return passing;
+    }
+
+    /**
+     * Increases the rate by a fraction of itself after each passing step and decreases it
+     * multiplicatively after each failing step, halving the fraction on every failure. Stops
+     * once the fraction is within tolerance. Returns the highest rate whose most recent
+     * measurement passed, or 0 if there is none.
+     */
+    public double searchAimd() throws InterruptedException {
+        Map<Double, Boolean> latest = new TreeMap<>();
+        double rate = START_RATE;
+        double increase = AIMD_INITIAL_INCREASE;
+
+        while (increase > BINARY_TOLERANCE && rate <= MAX_RATE) {
+            boolean passed = measure(rate).meetsSlo;
+            latest.put(rate, passed);
+            if (passed) {
+                rate = Math.floor(rate * (1 + increase));
+            } else {
+                increase /= 2;
+                rate = Math.max(START_RATE, Math.floor(rate * AIMD_DECREASE_FACTOR));
+            }
+        }
+
+        double best = 0;
+        for (Map.Entry<Double, Boolean> entry : latest.entrySet()) {
+            if (entry.getValue()) {
+                best = entry.getKey();
+            }
+        }
+        return best;
+    }
+
+    public void writeCurve(Path output) throws IOException {
+        boolean json = output.toString().endsWith(".json");
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(output, StandardCharsets.UTF_8))) {
+            if (json) {
+                out.println("[");
+                for (int i = 0; i < curve.size(); i++) {
+                    Step s = curve.get(i);
+                    out.printf(Locale.ROOT,
+                            "  {\"offered_ops_per_sec\": %.1f, \"achieved_ops_per_sec\": %.1f, \"p50_ms\": %.3f, " +
+                            "\"p99_ms\": %.3f, \"max_ms\": %.3f, \"error_rate\": %.6f, \"likes\": %d, " +
+                            "\"comments\": %d, \"substituted_likes\": %d, \"like_substitution_rate\": %.6f, " +
+                            "\"meets_slo\": %b}%s%n",
+                            s.offeredRate, s.achievedRate, s.p50Millis, s.p99Millis, s.maxMillis, s.errorRate,
+                            s.likes, s.comments, s.substitutedLikes, s.likeSubstitutionRate,
+                            s.meetsSlo, i < curve.size() - 1 ? "," : "");
+                }
+                out.println("]");
+            } else {
+                out.println("offered_ops_per_sec,achieved_ops_per_sec,p50_ms,p99_ms,max_ms,error_rate," +
+                        "likes,comments,substituted_likes,like_substitution_rate,meets_slo");
+                for (Step s : curve) {
+                    out.printf(Locale.ROOT, "%.1f,%.1f,%.3f,%.3f,%.3f,%.6f,%d,%d,%d,%.6f,%b%n",
+                            s.offeredRate, s.achievedRate, s.p50Millis, s.p99Millis, s.maxMillis, s.errorRate,
+                            s.likes, s.comments, s.substitutedLikes, s.likeSubstitutionRate, s.meetsSlo);
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        double p99SloMillis = args.length > 0 ? Double.parseDouble(args[0]) : DEFAULT_P99_SLO_MILLIS;
+        double maxErrorRate = args.length > 1 ? Double.parseDouble(args[1]) : DEFAULT_MAX_ERROR_RATE;
+        int stepSeconds = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_STEP_SECONDS;
+        String mode = args.length > 3 ? args[3] : DEFAULT_MODE;
+        Path output = Paths.get(args.length > 4 ? args[4] : DEFAULT_OUTPUT);
+
+        if (!mode.equals("binary") && !mode.equals("aimd")) {
+            System.err.println("Unknown mode '" + mode + "', expected 'binary' or 'aimd'");
+            return;
+        }
+        if (stepSeconds <= 0) {
+            System.err.println("Step length must be at least 1 second, got " + stepSeconds);
+            return;
+        }
+
+        WriteLoadGenerator generator = new WriteLoadGenerator();
+        try {
+            CapacitySearch search = new CapacitySearch(generator, p99SloMillis, maxErrorRate, Duration.ofSeconds(stepSeconds));
+            System.out.printf(Locale.ROOT, "Searching capacity (%s) with SLO p99 <= %.1f ms, errors <= %.3f%%, %ds steps%n",
+                    mode, p99SloMillis, maxErrorRate * 100, stepSeconds);
+
+            double capacity = mode.equals("aimd") ? search.searchAimd() : search.searchBinary();
+
+            search.writeCurve(output);
+            System.out.printf(Locale.ROOT, "Max sustainable throughput: %.0f ops/sec%n", capacity);
+            System.out.println("Wrote throughput-vs-latency curve to " + output.toAbsolutePath());
+        } finally {
+            generator.close();
+        }
+    }
+}
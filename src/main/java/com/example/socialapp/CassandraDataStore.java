@@ -0,0 +1,333 @@
+package com.example.socialapp;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchType;
+import com.datastax.oss.driver.api.core.cql.PagingState;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
+
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+/**
+ * {@link SocialDataStore} backed by a live Cassandra cluster.
+ *
+ * Every request goes through {@link #execute} or {@link #executeAsync} with a label naming
+ * the operation, so an optional {@link RequestTracer} can sample and attribute it.
+ */
+public class CassandraDataStore implements SocialDataStore {
+    private static final String KEYSPACE = "social_media";
+
+    private final CqlSession session;
+    private final RequestTracer tracer;
+
+    private final PreparedStatement insertUserStmt;
+    private final PreparedStatement insertPostStmt;
+    private final PreparedStatement insertCommentByPostStmt;
+    private final PreparedStatement insertCommentByUserStmt;
+    private final PreparedStatement insertLikeStmt;
+    private final PreparedStatement insertLikeByUserStmt;
+    private final PreparedStatement initPostMetricsStmt;
+    private final PreparedStatement incrementCommentCountStmt;
+    private final PreparedStatement incrementLikeCountStmt;
+
+    public CassandraDataStore(CqlSession session) {
+        this(session, null);
+    }
+
+    public CassandraDataStore(CqlSession session, RequestTracer tracer) {
+        this.session = session;
+        this.tracer = tracer;
+
+        insertUserStmt = session.prepare(
+                "INSERT INTO users (user_id, username, full_name, profile_picture_url, created_at, is_active) " +
+                "VALUES (?, ?, ?, ?, ?, ?)");
+
+        insertPostStmt = session.prepare(
+                "INSERT INTO posts (post_id, user_id, content, created_at, is_deleted) VALUES (?, ?, ?, ?, ?)");
+
+        insertCommentByPostStmt = session.prepare(
+                "INSERT INTO comments_by_post (post_id, comment_id, user_id, username, user_profile_pic, content, created_at, updated_at, is_deleted) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+
+        insertCommentByUserStmt = session.prepare(
+                "INSERT INTO comments_by_user (user_id, comment_id, post_id, content, created_at, is_deleted) " +
+                "VALUES (?, ?, ?, ?, ?, ?)");
+
+        insertLikeStmt = session.prepare(
+                "INSERT INTO post_likes (post_id, user_id, username, created_at) VALUES (?, ?, ?, ?)");
+
+        insertLikeByUserStmt = session.prepare(
+                "INSERT INTO post_likes_by_user (user_id, post_id, created_at) VALUES (?, ?, ?)");
+
+        initPostMetricsStmt = session.prepare(
+                "UPDATE post_metrics SET comment_count = comment_count + 0, like_count = like_count + 0 WHERE post_id = ?");
+
+        incrementCommentCountStmt = session.prepare(
+                "UPDATE post_metrics SET comment_count = comment_count + ? WHERE post_id = ?");
+
+        incrementLikeCountStmt = session.prepare(
+                "UPDATE post_metrics SET like_count = like_count + ? WHERE post_id = ?");
+    }
+
+    public static CassandraDataStore connect() {
+        CqlSession session = CqlSession.builder()
+                .addContactPoint(new InetSocketAddress("localhost", 9042))
+                .withLocalDatacenter("datacenter1")
+                .withKeyspace(KEYSPACE)
+                .build();
+
+        System.out.println("Connected to Cassandra cluster");
+        return new CassandraDataStore(session, RequestTracer.fromSystemProperties());
+    }
+
+    private <T extends Statement<T>> CompletionStage<Void> executeAsync(String label, T statement) {
+        if (tracer == null) {
+            return session.executeAsync(statement).thenApply(resultSet -> null);
+        }
+
+        boolean traced = tracer.shouldTrace();
+        long start = System.nanoTime();
+        return session.executeAsync(traced ? statement.setTracing(true) : statement)
+                .whenComplete((resultSet, error) -> {
+                    long elapsedNanos = System.nanoTime() - start;
+                    if (error == null) {
+                        tracer.onComplete(label, traced, elapsedNanos, resultSet.getExecutionInfo());
+                    } else {
+                        tracer.onFailure(label, traced, elapsedNanos, error);
+                    }
+                })
+                .thenApply(resultSet -> null);
+    }
+
+    private <T extends Statement<T>> ResultSet execute(String label, T statement) {
+        if (tracer == null) {
+            return session.execute(statement);
+        }
+
+        boolean traced = tracer.shouldTrace();
+        long start = System.nanoTime();
+        try {
+            ResultSet resultSet = session.execute(traced ? statement.setTracing(true) : statement);
+            tracer.onComplete(label, traced, System.nanoTime() - start, resultSet.getExecutionInfo());
+            return resultSet;
+        } catch (RuntimeException e) {
+            tracer.onFailure(label, traced, System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    private ResultSet execute(String label, String query, Object... values) {
+        return execute(label, SimpleStatement.newInstance(query, values));
+    }
+
+    /**
+     * Fetches a single page of {@code query}. Only the rows already received are read, so
+     * iterating does not trigger a fetch of the next page.
+     */
+    private <T> Page<T> scan(String label, String query, int pageSize, String pagingState, Function<Row, T> mapper) {
+        SimpleStatement statement = SimpleStatement.newInstance(query).setPageSize(pageSize);
+        if (pagingState != null) {
+            statement = statement.setPagingState(PagingState.fromString(pagingState));
+        }
+
+        ResultSet resultSet = execute(label, statement);
+        int available = resultSet.getAvailableWithoutFetching();
+        List<T> rows = new ArrayList<>(available);
+        Iterator<Row> iterator = resultSet.iterator();
+        for (int i = 0; i < available; i++) {
+            rows.add(mapper.apply(iterator.next()));
+        }
+
+        PagingState next = resultSet.getExecutionInfo().getSafePagingState();
+        return new Page<>(rows, next == null ? null : next.toString());
+    }
+
+    @Override
+    public CompletionStage<Void> insertUser(UUID userId, String username, String fullName, String profilePictureUrl,
+                                            Instant createdAt, boolean isActive) {
+        return executeAsync("insertUser", insertUserStmt.bind()
+                .setUuid(0, userId)
+                .setString(1, username)
+                .setString(2, fullName)
+                .setString(3, profilePictureUrl)
+                .setInstant(4, createdAt)
+                .setBoolean(5, isActive));
+    }
+
+    @Override
+    public CompletionStage<Void> insertPost(UUID postId, UUID userId, String content, Instant createdAt, boolean isDeleted) {
+        return executeAsync("insertPost", insertPostStmt.bind(postId, userId, content, createdAt, isDeleted));
+    }
+
+    @Override
+    public CompletionStage<Void> insertComment(UUID postId, UUID commentId, UUID userId, String username,
+                                               String userProfilePic, String content, Instant createdAt,
+                                               Instant updatedAt, boolean isDeleted) {
+        BatchStatement batch = BatchStatement.builder(BatchType.LOGGED)
+                .addStatement(insertCommentByPostStmt.bind()
+                        .setUuid(0, postId)
+                        .setUuid(1, commentId)
+                        .setUuid(2, userId)
+                        .setString(3, username)
+                        .setString(4, userProfilePic)
+                        .setString(5, content)
+                        .setInstant(6, createdAt)
+                        .setInstant(7, updatedAt)
+                        .setBoolean(8, isDeleted))
+                .addStatement(insertCommentByUserStmt.bind()
+                        .setUuid(0, userId)
+                        .setUuid(1, commentId)
+                        .setUuid(2, postId)
+                        .setString(3, content)
+                        .setInstant(4, createdAt)
+                        .setBoolean(5, isDeleted))
+                .build();
+        return executeAsync("insertComment", batch);
+    }
+
+    @Override
+    public CompletionStage<Void> insertLike(UUID postId, UUID userId, String username, Instant createdAt) {
+        BatchStatement batch = BatchStatement.builder(BatchType.LOGGED)
+                .addStatement(insertLikeStmt.bind()
+                        .setUuid(0, postId)
+                        .setUuid(1, userId)
+                        .setString(2, username)
+                        .setInstant(3, createdAt))
+                .addStatement(insertLikeByUserStmt.bind()
+                        .setUuid(0, userId)
+                        .setUuid(1, postId)
+                        .setInstant(2, createdAt))
+                .build();
+        return executeAsync("insertLike", batch);
+    }
+
+    @Override
+    public CompletionStage<Void> initPostMetrics(UUID postId) {
+        return executeAsync("initPostMetrics", initPostMetricsStmt.bind(postId));
+    }
+
+    @Override
+    public CompletionStage<Void> incrementCommentCount(UUID postId, long delta) {
+        return executeAsync("incrementCommentCount", incrementCommentCountStmt.bind(delta, postId));
+    }
+
+    @Override
+    public CompletionStage<Void> incrementLikeCount(UUID postId, long delta) {
+        return executeAsync("incrementLikeCount", incrementLikeCountStmt.bind(delta, postId));
+    }
+
+    @Override
+    public Page<UserProfile> scanUsers(int pageSize, String pagingState) {
+        return scan("scanUsers", "SELECT user_id, username, profile_picture_url FROM users", pageSize, pagingState,
+                row -> new UserProfile(
+                        row.getUuid("user_id"),
+                        row.getString("username"),
+                        row.getString("profile_picture_url")));
+    }
+
+    @Override
+    public Page<UUID> scanPostIds(int pageSize, String pagingState) {
+        return scan("scanPostIds", "SELECT post_id FROM posts", pageSize, pagingState,
+                row -> row.getUuid("post_id"));
+    }
+
+    @Override
+    public Page<PostMetrics> scanPostMetrics(int pageSize, String pagingState) {
+        return scan("scanPostMetrics", "SELECT post_id, comment_count, like_count FROM post_metrics", pageSize, pagingState,
+                row -> new PostMetrics(
+                        row.getUuid("post_id"),
+                        row.getLong("comment_count"),
+                        row.getLong("like_count")));
+    }
+
+    @Override
+    public Page<UserComment> scanCommentsByUser(int pageSize, String pagingState) {
+        return scan("scanCommentsByUser", "SELECT user_id, created_at FROM comments_by_user", pageSize, pagingState,
+                row -> new UserComment(row.getUuid("user_id"), row.getInstant("created_at")));
+    }
+
+    @Override
+    public Page<UserLike> scanLikesByUser(int pageSize, String pagingState) {
+        return scan("scanLikesByUser", "SELECT user_id, post_id, created_at FROM post_likes_by_user", pageSize, pagingState,
+                row -> new UserLike(row.getUuid("user_id"), row.getUuid("post_id"), row.getInstant("created_at")));
+    }
+
+    @Override
+    public PostSummary getPost(UUID postId) {
+        Row row = execute("getPost", "SELECT user_id, content FROM posts WHERE post_id = ?", postId).one();
+        return row == null ? null : new PostSummary(postId, row.getUuid("user_id"), row.getString("content"));
+    }
+
+    @Override
+    public String getUsername(UUID userId) {
+        Row row = execute("getUsername", "SELECT username FROM users WHERE user_id = ?", userId).one();
+        return row == null ? null : row.getString("username");
+    }
+
+    @Override
+    public PostMetrics getPostMetrics(UUID postId) {
+        Row row = execute("getPostMetrics",
+                "SELECT comment_count, like_count FROM post_metrics WHERE post_id = ?", postId).one();
+        return row == null ? null : new PostMetrics(postId, row.getLong("comment_count"), row.getLong("like_count"));
+    }
+
+    @Override
+    public Map<UUID, Long> countCommentsByPost() {
+        Map<UUID, Long> counts = new HashMap<>();
+        execute("countCommentsByPost", "SELECT post_id, COUNT(*) as comment_count FROM comments_by_post GROUP BY post_id ALLOW FILTERING")
+                .forEach(row -> counts.put(row.getUuid("post_id"), row.getLong("comment_count")));
+        return counts;
+    }
+
+    @Override
+    public Map<UUID, Long> countLikesByPost() {
+        Map<UUID, Long> counts = new HashMap<>();
+        execute("countLikesByPost", "SELECT post_id, COUNT(*) as like_count FROM post_likes GROUP BY post_id ALLOW FILTERING")
+                .forEach(row -> counts.put(row.getUuid("post_id"), row.getLong("like_count")));
+        return counts;
+    }
+
+    @Override
+    public long countUsers() {
+        return execute("countUsers", "SELECT COUNT(*) FROM users").one().getLong(0);
+    }
+
+    @Override
+    public long countPosts() {
+        return execute("countPosts", "SELECT COUNT(*) FROM posts").one().getLong(0);
+    }
+
+    @Override
+    public long sumCommentCounts() {
+        return execute("sumCommentCounts", "SELECT SUM(comment_count) FROM post_metrics").one().getLong(0);
+    }
+
+    @Override
+    public long sumLikeCounts() {
+        return execute("sumLikeCounts", "SELECT SUM(like_count) FROM post_metrics").one().getLong(0);
+    }
+
+    @Override
+    public void close() {
+        if (tracer != null) {
+            tracer.close();
+        }
+        if (session != null && !session.isClosed()) {
+            session.close();
+            System.out.println("Cassandra session closed");
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.socialapp;
+
+import java.time.Instant;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * A fast, deterministic generator of synthetic users, posts, comments and likes.
+ *
+ * Every row is a pure function of (seed, table, row index): each row draws from its own
+ * random stream derived from those three values, so rows can be generated in any order
+ * and on any number of threads and the same seed always yields the same dataset.
+ * Text is assembled from small precomputed dictionaries instead of a templating library.
+ */
+public class ContentGenerator {
+    private static final long USER_STREAM = 1;
+    private static final long POST_STREAM = 2;
+    private static final long COMMENT_STREAM = 3;
+    private static final long LIKE_STREAM = 4;
+    private static final long USER_ID_STREAM = 5;
+    private static final long POST_ID_STREAM = 6;
+
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+        "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+        "Daniel", "Lisa", "Matthew", "Nancy", "Anthony", "Betty", "Mark", "Sandra", "Donald", "Ashley",
+        "Steven", "Kimberly", "Andrew", "Emily", "Paul", "Donna", "Joshua", "Michelle", "Kenneth", "Carol",
+        "Kevin", "Amanda", "Brian", "Melissa", "George", "Deborah", "Timothy", "Stephanie", "Ronald", "Laura"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+        "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+        "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson",
+        "Walker", "Young", "Allen", "King", "Wright", "Scott", "Torres", "Nguyen", "Hill", "Flores",
+        "Green", "Adams", "Nelson", "Baker", "Hall", "Rivera", "Campbell", "Mitchell", "Carter", "Roberts"
+    };
+
+    private static final String[] WORDS = {
+        "lorem", "ipsum", "dolor", "sit", "amet", "consectetur", "adipiscing", "elit", "sed", "do",
+        "eiusmod", "tempor", "incididunt", "ut", "labore", "et", "dolore", "magna", "aliqua", "enim",
+        "ad", "minim", "veniam", "quis", "nostrud", "exercitation", "ullamco", "laboris", "nisi", "aliquip",
+        "ex", "ea", "commodo", "consequat", "duis", "aute", "irure", "in", "reprehenderit", "voluptate",
+        "velit", "esse", "cillum", "fugiat", "nulla", "pariatur", "excepteur", "sint", "occaecat", "cupidatat",
+        "non", "proident", "sunt", "culpa", "qui", "officia", "deserunt", "mollit", "anim", "id",
+        "est", "laborum", "perspiciatis", "unde", "omnis", "iste", "natus", "error", "voluptatem", "accusantium",
+        "doloremque", "laudantium", "totam", "rem", "aperiam", "eaque", "ipsa", "quae", "ab", "illo",
+        "inventore", "veritatis", "quasi", "architecto", "beatae", "vitae", "dicta", "explicabo", "nemo", "ipsam"
+    };
+
+    private final long seed;
+    private final Instant baseTime;
+    private volatile long[] likeStrideCache = {0, 0};
+
+    public ContentGenerator(long seed, Instant baseTime) {
+        this.seed = seed;
+        this.baseTime = baseTime;
+    }
+
+    public static class User {
+        public final UUID userId;
+        public final String username;
+        public final String fullName;
+        public final String profilePictureUrl;
+        public final Instant createdAt;
+
+        User(UUID userId, String username, String fullName, String profilePictureUrl, Instant createdAt) {
+            this.userId = userId;
+            this.username = username;
+            this.fullName = fullName;
+            this.profilePictureUrl = profilePictureUrl;
+            this.createdAt = createdAt;
+        }
+    }
+
+    public static class Post {
+        public final UUID postId;
+        public final int authorIndex;
+        public final String content;
+        public final Instant createdAt;
+
+        Post(UUID postId, int authorIndex, String content, Instant createdAt) {
+            this.postId = postId;
+            this.authorIndex = authorIndex;
+            this.content = content;
+            this.createdAt = createdAt;
+        }
+    }
+
+    public static class Comment {
+        public final UUID commentId;
+        public final int postIndex;
+        public final int userIndex;
+        public final String content;
+        public final Instant createdAt;
+        public final Instant updatedAt;
+
+        Comment(UUID commentId, int postIndex, int userIndex, String content, Instant createdAt, Instant updatedAt) {
+            this.commentId = commentId;
+            this.postIndex = postIndex;
+            this.userIndex = userIndex;
+            this.content = content;
+            this.createdAt = createdAt;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    public static class Like {
+        public final int postIndex;
+        public final int userIndex;
+        public final Instant createdAt;
+
+        Like(int postIndex, int userIndex, Instant createdAt) {
+            this.postIndex = postIndex;
+            this.userIndex = userIndex;
+            this.createdAt = createdAt;
+        }
+    }
+
+    public UUID userId(int index) {
+        return randomUuid(stream(USER_ID_STREAM, index));
+    }
+
+    public UUID postId(int index) {
+        return randomUuid(stream(POST_ID_STREAM, index));
+    }
+
+    public User user(int index) {
+        SplittableRandom random = stream(USER_STREAM, index);
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String username = first.toLowerCase() + "." + last.toLowerCase() + random.nextInt(100, 1000);
+        Instant createdAt = baseTime.minusSeconds(random.nextInt(86400, 2592000));
+
+        return new User(userId(index), username, first + " " + last,
+                "https://picsum.photos/200/200?random=" + index, createdAt);
+    }
+
+    public Post post(int index, int userCount) {
+        SplittableRandom random = stream(POST_STREAM, index);
+        int authorIndex = random.nextInt(userCount);
+        String content = paragraph(random, random.nextInt(1, 5));
+        Instant createdAt = baseTime.minusSeconds(random.nextInt(300, 2592000));
+
+        return new Post(postId(index), authorIndex, content, createdAt);
+    }
+
+    public Comment comment(int index, int postCount, int userCount) {
+        SplittableRandom random = stream(COMMENT_STREAM, index);
+        int postIndex = random.nextInt(postCount);
+        int userIndex = random.nextInt(userCount);
+        String content = sentence(random, random.nextInt(5, 20));
+        Instant createdAt = baseTime.minusSeconds(random.nextInt(60, 604800));
+        Instant updatedAt = createdAt;
+        if (random.nextInt(100) < 5) {
+            updatedAt = createdAt.plusSeconds(random.nextInt(30, 3600));
+        }
+
+        return new Comment(randomUuid(random), postIndex, userIndex, content, createdAt, updatedAt);
+    }
+
+    /**
+     * Returns the like with the given index. Indexes are mapped onto (post, user) pairs by a
+     * seed-dependent permutation, so likes with distinct indexes below
+     * {@code postCount * userCount} never repeat a pair.
+     */
+    public Like like(int index, int postCount, int userCount) {
+        long pairCount = (long) postCount * userCount;
+        long offset = Math.floorMod(mix(seed ^ LIKE_STREAM), pairCount);
+        long pair = (index % pairCount * likeStride(pairCount) + offset) % pairCount;
+        SplittableRandom random = stream(LIKE_STREAM, index);
+        Instant createdAt = baseTime.minusSeconds(random.nextInt(30, 432000));
+
+        return new Like((int) (pair / userCount), (int) (pair % userCount), createdAt);
+    }
+
+    private long likeStride(long pairCount) {
+        long[] cached = likeStrideCache;
+        if (cached[0] == pairCount) {
+            return cached[1];
+        }
+
+        // Any stride coprime with pairCount visits every pair once; keeping it below 2^31
+        // keeps index * stride from overflowing
+        long stride = 1 + (mix(seed ^ (LIKE_STREAM << 32)) & Long.MAX_VALUE) % Math.min(pairCount, Integer.MAX_VALUE);
+        while (gcd(stride, pairCount) != 1) {
+            stride++;
+        }
+        likeStrideCache = new long[] {pairCount, stride};
+        return stride;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private SplittableRandom stream(long table, long index) {
+        return new SplittableRandom(mix(seed + mix(table * 0x9E3779B97F4A7C15L + index)));
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static UUID randomUuid(SplittableRandom random) {
+        long msb = (random.nextLong() & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L;
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    private static String sentence(SplittableRandom random, int wordCount) {
+        StringBuilder sb = new StringBuilder(wordCount * 8);
+        appendSentence(sb, random, wordCount);
+        return sb.toString();
+    }
+
+    private static String paragraph(SplittableRandom random, int sentenceCount) {
+        StringBuilder sb = new StringBuilder(sentenceCount * 64);
+        for (int i = 0; i < sentenceCount; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            appendSentence(sb, random, random.nextInt(3, 10));
+        }
+        return sb.toString();
+    }
+
+    private static void appendSentence(StringBuilder sb, SplittableRandom random, int wordCount) {
+        for (int i = 0; i < wordCount; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (i == 0) {
+                sb.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            } else {
+                sb.append(' ').append(word);
+            }
+        }
+        sb.append('.');
+    }
+}
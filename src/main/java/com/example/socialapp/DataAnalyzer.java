@@ -1,9 +1,5 @@
 package com.example.socialapp;
 
-import com.datastax.oss.driver.api.core.CqlSession;
-import com.datastax.oss.driver.api.core.cql.Row;
-
-import java.net.InetSocketAddress;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -18,17 +14,14 @@ import java.util.stream.Collectors;
  * A utility class to analyze comment and like patterns in the social media database
  */
 public class DataAnalyzer {
-    private static final String KEYSPACE = "social_media";
-    private final CqlSession session;
+    private final SocialDataStore store;
     
     public DataAnalyzer() {
-        this.session = CqlSession.builder()
-                .addContactPoint(new InetSocketAddress("localhost", 9042))
-                .withLocalDatacenter("datacenter1")
-                .withKeyspace(KEYSPACE)
-                .build();
-        
-        System.out.println("Connected to Cassandra cluster");
+        this(SocialDataStore.open());
+    }
+    
+    public DataAnalyzer(SocialDataStore store) {
+        this.store = store;
     }
     
     public void analyzeData() {
@@ -44,11 +37,11 @@ public class DataAnalyzer {
     private void countRecords() {
         System.out.println("=== RECORD COUNTS ===");
         
-        long userCount = session.execute("SELECT COUNT(*) FROM users").one().getLong(0);
-        long postCount = session.execute("SELECT COUNT(*) FROM posts").one().getLong(0);
+        long userCount = store.countUsers();
+        long postCount = store.countPosts();
         
-        long totalComments = session.execute("SELECT SUM(comment_count) FROM post_metrics").one().getLong(0);
-        long totalLikes = session.execute("SELECT SUM(like_count) FROM post_metrics").one().getLong(0);
+        long totalComments = store.sumCommentCounts();
+        long totalLikes = store.sumLikeCounts();
         
         System.out.println("Users: " + userCount);
         System.out.println("Posts: " + postCount);
@@ -60,13 +53,11 @@ public class DataAnalyzer {
     private void getMostLikedPosts() {
         System.out.println("=== MOST LIKED POSTS ===");
         
-        List<Row> results = session.execute(
-                "SELECT post_id, like_count FROM post_metrics LIMIT 10"
-        ).all();
+        List<SocialDataStore.PostMetrics> results = store.getPostMetrics(10);
         
         Map<UUID, Integer> postLikes = new HashMap<>();
-        for (Row row : results) {
-            postLikes.put(row.getUuid("post_id"), (int)row.getLong("like_count"));
+        for (SocialDataStore.PostMetrics metrics : results) {
+            postLikes.put(metrics.postId, (int) metrics.likeCount);
         }
         
         for (Map.Entry<UUID, Integer> entry : postLikes.entrySet().stream()
@@ -77,21 +68,14 @@ public class DataAnalyzer {
             UUID postId = entry.getKey();
             int likeCount = entry.getValue();
             
-            Row postRow = session.execute(
-                    "SELECT user_id, content FROM posts WHERE post_id = ?", 
-                    postId
-            ).one();
+            SocialDataStore.PostSummary post = store.getPost(postId);
             
-            if (postRow != null) {
-                UUID userId = postRow.getUuid("user_id");
-                String content = postRow.getString("content");
-                
-                Row userRow = session.execute(
-                        "SELECT username FROM users WHERE user_id = ?", 
-                        userId
-                ).one();
+            if (post != null) {
+                UUID userId = post.userId;
+                String content = post.content;
                 
-                String username = userRow != null ? userRow.getString("username") : "Unknown";
+                String storedUsername = store.getUsername(userId);
+                String username = storedUsername != null ? storedUsername : "Unknown";
                 
                 System.out.println("Post by " + username + " has " + likeCount + " likes");
                 System.out.println("Content: " + truncate(content, 50));
@@ -105,10 +89,10 @@ public class DataAnalyzer {
         
         Map<UUID, Integer> commentsByUser = new HashMap<>();
         
-        List<Row> comments = session.execute("SELECT user_id FROM comments_by_user LIMIT 1000").all();
+        List<SocialDataStore.UserComment> comments = store.getCommentsByUser(1000);
         
-        for (Row commentRow : comments) {
-            UUID userId = commentRow.getUuid("user_id");
+        for (SocialDataStore.UserComment comment : comments) {
+            UUID userId = comment.userId;
             commentsByUser.put(userId, commentsByUser.getOrDefault(userId, 0) + 1);
         }
         
@@ -119,12 +103,8 @@ public class DataAnalyzer {
                     UUID userId = entry.getKey();
                     int commentCount = entry.getValue();
                     
-                    Row userRow = session.execute(
-                            "SELECT username FROM users WHERE user_id = ?", 
-                            userId
-                    ).one();
-                    
-                    String username = userRow != null ? userRow.getString("username") : "Unknown";
+                    String storedUsername = store.getUsername(userId);
+                    String username = storedUsername != null ? storedUsername : "Unknown";
                     
                     System.out.println("User " + username + " made " + commentCount + " comments");
                 });
@@ -136,18 +116,13 @@ public class DataAnalyzer {
         System.out.println("=== MOST COMMENTED POSTS ===");
         
         Map<UUID, Long> commentsByPost = new HashMap<>();
-        List<Row> posts = session.execute("SELECT post_id FROM posts LIMIT 1000").all();
+        List<UUID> posts = store.getPostIds(1000);
         
-        for (Row postRow : posts) {
-            UUID postId = postRow.getUuid("post_id");
-            
-            Row metricsRow = session.execute(
-                "SELECT comment_count FROM post_metrics WHERE post_id = ?", 
-                postId
-            ).one();
+        for (UUID postId : posts) {
+            SocialDataStore.PostMetrics metrics = store.getPostMetrics(postId);
             
-            if (metricsRow != null) {
-                long commentCount = metricsRow.getLong("comment_count");
+            if (metrics != null) {
+                long commentCount = metrics.commentCount;
                 commentsByPost.put(postId, commentCount);
             }
         }
@@ -159,21 +134,14 @@ public class DataAnalyzer {
                     UUID postId = entry.getKey();
                     long commentCount = entry.getValue();
                     
-                    Row postRow = session.execute(
-                            "SELECT user_id, content FROM posts WHERE post_id = ?", 
-                            postId
-                    ).one();
+                    SocialDataStore.PostSummary post = store.getPost(postId);
                     
-                    if (postRow != null) {
-                        UUID userId = postRow.getUuid("user_id");
-                        String content = postRow.getString("content");
+                    if (post != null) {
+                        UUID userId = post.userId;
+                        String content = post.content;
                         
-                        Row userRow = session.execute(
-                                "SELECT username FROM users WHERE user_id = ?", 
-                                userId
-                        ).one();
-                        
-                        String username = userRow != null ? userRow.getString("username") : "Unknown";
+                        String storedUsername = store.getUsername(userId);
+                        String username = storedUsername != null ? storedUsername : "Unknown";
                         
                         System.out.println("Post by " + username + " has " + commentCount + " comments");
                         System.out.println("Content: " + truncate(content, 50));
@@ -190,10 +158,10 @@ public class DataAnalyzer {
             commentsByHour.put(i, 0);
         }
         
-        List<Row> commentRows = session.execute("SELECT created_at FROM comments_by_user LIMIT 1000").all();
+        List<SocialDataStore.UserComment> commentRows = store.getCommentsByUser(1000);
         
-        for (Row commentRow : commentRows) {
-            Instant createdAt = commentRow.getInstant("created_at");
+        for (SocialDataStore.UserComment commentRow : commentRows) {
+            Instant createdAt = commentRow.createdAt;
             LocalDateTime dateTime = LocalDateTime.ofInstant(createdAt, ZoneId.systemDefault());
             int hour = dateTime.getHour();
             
@@ -217,10 +185,7 @@ public class DataAnalyzer {
     }
     
     public void close() {
-        if (session != null && !session.isClosed()) {
-            session.close();
-            System.out.println("Cassandra session closed");
-        }
+        store.close();
     }
     
     public static void main(String[] args) {
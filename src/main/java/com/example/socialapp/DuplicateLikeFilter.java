@@ -0,0 +1,115 @@
+package com.example.socialapp;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed-size, sharded Bloom filter over (user, post) like pairs.
+ *
+ * Each pair hashes to one shard, and all of its bits live inside that shard, so a
+ * check-and-insert only has to lock a single shard. A pair that was added is always
+ * reported as a duplicate; a new pair is wrongly reported as a duplicate with the
+ * probability returned by {@link #getEstimatedFalsePositiveRate()}.
+ */
+public class DuplicateLikeFilter {
+    private static final int SHARD_COUNT = 64;
+
+    private final Shard[] shards = new Shard[SHARD_COUNT];
+    private final int hashCount;
+    private final long bitsPerShard;
+
+    private final AtomicLong checked = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private static class Shard {
+        final long[] words;
+        long setBits;
+
+        Shard(int words) {
+            this.words = new long[words];
+        }
+    }
+
+    /**
+     * Sizes the filter so that after {@code expectedLikes} insertions the false-positive
+     * rate is roughly {@code falsePositiveRate}.
+     */
+    public DuplicateLikeFilter(long expectedLikes, double falsePositiveRate) {
+        double totalBits = -expectedLikes * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        int wordsPerShard = (int) Math.max(1, Math.ceil(totalBits / SHARD_COUNT / 64));
+        this.bitsPerShard = wordsPerShard * 64L;
+        this.hashCount = (int) Math.max(1, Math.round(totalBits / expectedLikes * Math.log(2)));
+
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            shards[i] = new Shard(wordsPerShard);
+        }
+    }
+
+    /**
+     * Records the like and returns true if it was not seen before, or returns false if it
+     * is (probably) a duplicate and should not be written.
+     */
+    public boolean addIfAbsent(UUID userId, UUID postId) {
+        checked.incrementAndGet();
+        long hash = hash(userId, postId);
+        Shard shard = shards[(int) (hash >>> 58)];
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+
+        boolean added = false;
+        synchronized (shard) {
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bitsPerShard;
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                if ((shard.words[word] & mask) == 0) {
+                    shard.words[word] |= mask;
+                    shard.setBits++;
+                    added = true;
+                }
+            }
+        }
+
+        if (!added) {
+            rejected.incrementAndGet();
+        }
+        return added;
+    }
+
+    private static long hash(UUID userId, UUID postId) {
+        long h = userId.getMostSignificantBits() * 0x9E3779B97F4A7C15L;
+        h ^= userId.getLeastSignificantBits() + 0x632BE59BD9B4E019L + (h << 6) + (h >>> 2);
+        h ^= postId.getMostSignificantBits() + 0x9E3779B97F4A7C15L + (h << 6) + (h >>> 2);
+        h ^= postId.getLeastSignificantBits() + 0x632BE59BD9B4E019L + (h << 6) + (h >>> 2);
+        // Final avalanche (SplitMix64) so shard selection and bit positions are independent
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    /**
+     * Estimates the current false-positive rate from the fraction of bits already set.
+     */
+    public double getEstimatedFalsePositiveRate() {
+        long setBits = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                setBits += shard.setBits;
+            }
+        }
+        double fill = (double) setBits / (bitsPerShard * SHARD_COUNT);
+        return Math.pow(fill, hashCount);
+    }
+
+    public long getMemoryBytes() {
+        return bitsPerShard / 8 * SHARD_COUNT;
+    }
+
+    public long getCheckedCount() {
+        return checked.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,453 @@
+package com.example.socialapp;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * An in-process stand-in for the {@code social_media} keyspace, for running the apps and
+ * measuring client-side throughput without a cluster.
+ *
+ * Each table from {@code schema.cql} is a sorted map of partitions; partitions are ordered
+ * by a hash of the partition key (like token order, though not Murmur3-compatible) and rows
+ * within a partition follow the table's clustering order. Inserts are upserts and counters
+ * are atomic, as in Cassandra. A scan's paging state is the primary key of the last row
+ * returned, and the next page resumes after it.
+ *
+ * Every operation can be given an injected latency (fixed plus uniform jitter) and a failure
+ * rate, which can be changed while the store is in use. A failed write is not applied and
+ * completes with {@link InjectedFailureException}. {@link #fromSystemProperties()} reads them
+ * from {@code socialapp.store.latencyMicros}, {@code socialapp.store.jitterMicros} and
+ * {@code socialapp.store.failureRate}.
+ */
+public class InMemoryDataStore implements SocialDataStore {
+
+    public static class InjectedFailureException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        InjectedFailureException() {
+            super("Injected failure");
+        }
+    }
+
+    private static final Comparator<UUID> TOKEN_ORDER =
+            Comparator.comparingLong(InMemoryDataStore::token).thenComparing(Comparator.naturalOrder());
+
+    // created_at DESC, then the second clustering column ASC
+    private static final Comparator<Clustering> CREATED_AT_DESC =
+            Comparator.comparing((Clustering c) -> c.createdAt).reversed().thenComparing(c -> c.id);
+
+    private static class Clustering {
+        final Instant createdAt;
+        final UUID id;
+
+        Clustering(Instant createdAt, UUID id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+    }
+
+    private static class UserRow {
+        final String username;
+        final String fullName;
+        final String profilePictureUrl;
+        final Instant createdAt;
+        final boolean isActive;
+
+        UserRow(String username, String fullName, String profilePictureUrl, Instant createdAt, boolean isActive) {
+            this.username = username;
+            this.fullName = fullName;
+            this.profilePictureUrl = profilePictureUrl;
+            this.createdAt = createdAt;
+            this.isActive = isActive;
+        }
+    }
+
+    private static class PostRow {
+        final UUID userId;
+        final String content;
+        final Instant createdAt;
+        final boolean isDeleted;
+
+        PostRow(UUID userId, String content, Instant createdAt, boolean isDeleted) {
+            this.userId = userId;
+            this.content = content;
+            this.createdAt = createdAt;
+            this.isDeleted = isDeleted;
+        }
+    }
+
+    private static class MetricsRow {
+        final AtomicLong commentCount = new AtomicLong();
+        final AtomicLong likeCount = new AtomicLong();
+    }
+
+    private static class CommentRow {
+        final UUID userId;
+        final UUID postId;
+        final String username;
+        final String userProfilePic;
+        final String content;
+        final Instant updatedAt;
+        final boolean isDeleted;
+
+        CommentRow(UUID userId, UUID postId, String username, String userProfilePic, String content,
+                   Instant updatedAt, boolean isDeleted) {
+            this.userId = userId;
+            this.postId = postId;
+            this.username = username;
+            this.userProfilePic = userProfilePic;
+            this.content = content;
+            this.updatedAt = updatedAt;
+            this.isDeleted = isDeleted;
+        }
+    }
+
+    private static class LikeRow {
+        final String username;
+        final Instant createdAt;
+
+        LikeRow(String username, Instant createdAt) {
+            this.username = username;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private final ConcurrentSkipListMap<UUID, UserRow> users = new ConcurrentSkipListMap<>(TOKEN_ORDER);
+    private final ConcurrentSkipListMap<UUID, PostRow> posts = new ConcurrentSkipListMap<>(TOKEN_ORDER);
+    private final ConcurrentSkipListMap<UUID, MetricsRow> postMetrics = new ConcurrentSkipListMap<>(TOKEN_ORDER);
+    private final ConcurrentSkipListMap<UUID, ConcurrentSkipListMap<Clustering, CommentRow>> commentsByPost =
+            new ConcurrentSkipListMap<>(TOKEN_ORDER);
+    private final ConcurrentSkipListMap<UUID, ConcurrentSkipListMap<Clustering, CommentRow>> commentsByUser =
+            new ConcurrentSkipListMap<>(TOKEN_ORDER);
+    private final ConcurrentSkipListMap<UUID, ConcurrentSkipListMap<UUID, LikeRow>> postLikes =
+            new ConcurrentSkipListMap<>(TOKEN_ORDER);
+    private final ConcurrentSkipListMap<UUID, ConcurrentSkipListMap<Clustering, Boolean>> postLikesByUser =
+            new ConcurrentSkipListMap<>(TOKEN_ORDER);
+
+    private volatile long latencyMicros;
+    private volatile long jitterMicros;
+    private volatile double failureRate;
+    private final ScheduledExecutorService delayExecutor;
+
+    public InMemoryDataStore() {
+        this(0, 0, 0.0);
+    }
+
+    public InMemoryDataStore(long latencyMicros, long jitterMicros, double failureRate) {
+        injectFaults(latencyMicros, jitterMicros, failureRate);
+        this.delayExecutor = Executors.newScheduledThreadPool(
+                Runtime.getRuntime().availableProcessors(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "in-memory-store");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public static InMemoryDataStore fromSystemProperties() {
+        InMemoryDataStore store = new InMemoryDataStore();
+        store.injectFaultsFromSystemProperties();
+        return store;
+    }
+
+    /**
+     * Sets the latency and failure rate applied to every subsequent operation.
+     */
+    public void injectFaults(long latencyMicros, long jitterMicros, double failureRate) {
+        this.latencyMicros = latencyMicros;
+        this.jitterMicros = jitterMicros;
+        this.failureRate = failureRate;
+    }
+
+    public double getFailureRate() {
+        return failureRate;
+    }
+
+    public void injectFaultsFromSystemProperties() {
+        injectFaults(
+                Long.getLong("socialapp.store.latencyMicros", 0),
+                Long.getLong("socialapp.store.jitterMicros", 0),
+                Double.parseDouble(System.getProperty("socialapp.store.failureRate", "0")));
+        System.out.printf("Using in-memory data store (latency %dus + up to %dus jitter, failure rate %.4f)%n",
+                latencyMicros, jitterMicros, failureRate);
+    }
+
+    private static long token(UUID key) {
+        long h = key.getMostSignificantBits() ^ Long.rotateLeft(key.getLeastSignificantBits(), 32);
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    /**
+     * Runs {@code operation} after the injected latency, or fails without running it.
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long latencyMicros = this.latencyMicros;
+        long jitterMicros = this.jitterMicros;
+        double failureRate = this.failureRate;
+        boolean fail = failureRate > 0 && random.nextDouble() < failureRate;
+        long delayMicros = latencyMicros + (jitterMicros > 0 ? random.nextLong(jitterMicros + 1) : 0);
+
+        if (delayMicros == 0) {
+            return fail ? CompletableFuture.failedFuture(new InjectedFailureException())
+                        : CompletableFuture.completedFuture(operation.get());
+        }
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        delayExecutor.schedule(() -> {
+            if (fail) {
+                future.completeExceptionally(new InjectedFailureException());
+            } else {
+                try {
+                    future.complete(operation.get());
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        }, delayMicros, TimeUnit.MICROSECONDS);
+        return future;
+    }
+
+    private CompletionStage<Void> write(Runnable mutation) {
+        return submit(() -> {
+            mutation.run();
+            return null;
+        });
+    }
+
+    private <T> T read(Supplier<T> query) {
+        try {
+            return submit(query).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static <K, V> ConcurrentSkipListMap<K, V> partition(
+            ConcurrentSkipListMap<UUID, ConcurrentSkipListMap<K, V>> table, UUID key, Comparator<? super K> order) {
+        return table.computeIfAbsent(key, k -> new ConcurrentSkipListMap<>(order));
+    }
+
+    @Override
+    public CompletionStage<Void> insertUser(UUID userId, String username, String fullName, String profilePictureUrl,
+                                            Instant createdAt, boolean isActive) {
+        return write(() -> users.put(userId, new UserRow(username, fullName, profilePictureUrl, createdAt, isActive)));
+    }
+
+    @Override
+    public CompletionStage<Void> insertPost(UUID postId, UUID userId, String content, Instant createdAt, boolean isDeleted) {
+        return write(() -> posts.put(postId, new PostRow(userId, content, createdAt, isDeleted)));
+    }
+
+    @Override
+    public CompletionStage<Void> insertComment(UUID postId, UUID commentId, UUID userId, String username,
+                                               String userProfilePic, String content, Instant createdAt,
+                                               Instant updatedAt, boolean isDeleted) {
+        CommentRow row = new CommentRow(userId, postId, username, userProfilePic, content, updatedAt, isDeleted);
+        Clustering clustering = new Clustering(createdAt, commentId);
+        return write(() -> {
+            partition(commentsByPost, postId, CREATED_AT_DESC).put(clustering, row);
+            partition(commentsByUser, userId, CREATED_AT_DESC).put(clustering, row);
+        });
+    }
+
+    @Override
+    public CompletionStage<Void> insertLike(UUID postId, UUID userId, String username, Instant createdAt) {
+        return write(() -> {
+            partition(postLikes, postId, Comparator.naturalOrder()).put(userId, new LikeRow(username, createdAt));
+            partition(postLikesByUser, userId, CREATED_AT_DESC).put(new Clustering(createdAt, postId), Boolean.TRUE);
+        });
+    }
+
+    @Override
+    public CompletionStage<Void> initPostMetrics(UUID postId) {
+        return write(() -> postMetrics.computeIfAbsent(postId, k -> new MetricsRow()));
+    }
+
+    @Override
+    public CompletionStage<Void> incrementCommentCount(UUID postId, long delta) {
+        return write(() -> postMetrics.computeIfAbsent(postId, k -> new MetricsRow()).commentCount.addAndGet(delta));
+    }
+
+    @Override
+    public CompletionStage<Void> incrementLikeCount(UUID postId, long delta) {
+        return write(() -> postMetrics.computeIfAbsent(postId, k -> new MetricsRow()).likeCount.addAndGet(delta));
+    }
+
+    /**
+     * Returns up to {@code pageSize} partitions of a table without clustering columns,
+     * starting after the partition named by {@code pagingState}.
+     */
+    private static <V, T> Page<T> scanPartitions(ConcurrentSkipListMap<UUID, V> table, int pageSize, String pagingState,
+                                                 BiFunction<UUID, V, T> mapper) {
+        NavigableMap<UUID, V> partitions = pagingState == null
+                ? table
+                : table.tailMap(UUID.fromString(pagingState), false);
+
+        List<T> rows = new ArrayList<>();
+        String last = null;
+        for (Map.Entry<UUID, V> entry : partitions.entrySet()) {
+            if (rows.size() >= pageSize) {
+                return new Page<>(rows, last);
+            }
+            rows.add(mapper.apply(entry.getKey(), entry.getValue()));
+            last = entry.getKey().toString();
+        }
+        return new Page<>(rows, null);
+    }
+
+    /**
+     * Returns up to {@code pageSize} rows of a table clustered by {@link Clustering}, in
+     * partition order and then clustering order, starting after the row named by
+     * {@code pagingState} ({@code partitionKey|createdAt|id}).
+     */
+    private static <T> Page<T> scanRows(ConcurrentSkipListMap<UUID, ? extends ConcurrentSkipListMap<Clustering, ?>> table,
+                                        int pageSize, String pagingState, BiFunction<UUID, Clustering, T> mapper) {
+        UUID startKey = null;
+        Clustering startAfter = null;
+        if (pagingState != null) {
+            String[] parts = pagingState.split("\\|");
+            startKey = UUID.fromString(parts[0]);
+            startAfter = new Clustering(Instant.parse(parts[1]), UUID.fromString(parts[2]));
+        }
+        NavigableMap<UUID, ? extends ConcurrentSkipListMap<Clustering, ?>> partitions = startKey == null
+                ? table
+                : table.tailMap(startKey, true);
+
+        List<T> rows = new ArrayList<>();
+        String last = null;
+        for (Map.Entry<UUID, ? extends ConcurrentSkipListMap<Clustering, ?>> entry : partitions.entrySet()) {
+            NavigableMap<Clustering, ?> partition = entry.getKey().equals(startKey)
+                    ? entry.getValue().tailMap(startAfter, false)
+                    : entry.getValue();
+            for (Clustering clustering : partition.keySet()) {
+                if (rows.size() >= pageSize) {
+                    return new Page<>(rows, last);
+                }
+                rows.add(mapper.apply(entry.getKey(), clustering));
+                last = entry.getKey() + "|" + clustering.createdAt + "|" + clustering.id;
+            }
+        }
+        return new Page<>(rows, null);
+    }
+
+    @Override
+    public Page<UserProfile> scanUsers(int pageSize, String pagingState) {
+        return read(() -> scanPartitions(users, pageSize, pagingState,
+                (userId, row) -> new UserProfile(userId, row.username, row.profilePictureUrl)));
+    }
+
+    @Override
+    public Page<UUID> scanPostIds(int pageSize, String pagingState) {
+        return read(() -> scanPartitions(posts, pageSize, pagingState, (postId, row) -> postId));
+    }
+
+    @Override
+    public Page<PostMetrics> scanPostMetrics(int pageSize, String pagingState) {
+        return read(() -> scanPartitions(postMetrics, pageSize, pagingState,
+                (postId, row) -> new PostMetrics(postId, row.commentCount.get(), row.likeCount.get())));
+    }
+
+    @Override
+    public Page<UserComment> scanCommentsByUser(int pageSize, String pagingState) {
+        return read(() -> scanRows(commentsByUser, pageSize, pagingState,
+                (userId, clustering) -> new UserComment(userId, clustering.createdAt)));
+    }
+
+    @Override
+    public Page<UserLike> scanLikesByUser(int pageSize, String pagingState) {
+        return read(() -> scanRows(postLikesByUser, pageSize, pagingState,
+                (userId, clustering) -> new UserLike(userId, clustering.id, clustering.createdAt)));
+    }
+
+    @Override
+    public PostSummary getPost(UUID postId) {
+        return read(() -> {
+            PostRow row = posts.get(postId);
+            return row == null ? null : new PostSummary(postId, row.userId, row.content);
+        });
+    }
+
+    @Override
+    public String getUsername(UUID userId) {
+        return read(() -> {
+            UserRow row = users.get(userId);
+            return row == null ? null : row.username;
+        });
+    }
+
+    @Override
+    public PostMetrics getPostMetrics(UUID postId) {
+        return read(() -> {
+            MetricsRow row = postMetrics.get(postId);
+            return row == null ? null : new PostMetrics(postId, row.commentCount.get(), row.likeCount.get());
+        });
+    }
+
+    @Override
+    public Map<UUID, Long> countCommentsByPost() {
+        return read(() -> countRows(commentsByPost));
+    }
+
+    @Override
+    public Map<UUID, Long> countLikesByPost() {
+        return read(() -> countRows(postLikes));
+    }
+
+    private static Map<UUID, Long> countRows(NavigableMap<UUID, ? extends Map<?, ?>> table) {
+        Map<UUID, Long> counts = new HashMap<>();
+        table.forEach((key, partition) -> {
+            if (!partition.isEmpty()) {
+                counts.put(key, (long) partition.size());
+            }
+        });
+        return counts;
+    }
+
+    @Override
+    public long countUsers() {
+        return read(() -> (long) users.size());
+    }
+
+    @Override
+    public long countPosts() {
+        return read(() -> (long) posts.size());
+    }
+
+    @Override
+    public long sumCommentCounts() {
+        return read(() -> postMetrics.values().stream().mapToLong(row -> row.commentCount.get()).sum());
+    }
+
+    @Override
+    public long sumLikeCounts() {
+        return read(() -> postMetrics.values().stream().mapToLong(row -> row.likeCount.get()).sum());
+    }
+
+    @Override
+    public void close() {
+        delayExecutor.shutdownNow();
+    }
+}
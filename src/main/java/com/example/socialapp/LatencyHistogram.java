@@ -0,0 +1,174 @@
+package com.example.socialapp;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free, fixed-layout latency histogram with microsecond resolution.
+ *
+ * Values below 64us get their own bucket; above that every power of two is split
+ * into 32 sub-buckets, which keeps the relative error of any reported percentile
+ * under ~3%. Because every instance uses the same bucket layout, two histograms can
+ * be merged exactly by adding their bucket counts.
+ */
+public class LatencyHistogram {
+    private static final int LINEAR_BUCKETS = 64;
+    private static final int SUB_BUCKETS = 32;
+    private static final int SUB_BUCKET_BITS = 5;
+    static final int BUCKET_COUNT = LINEAR_BUCKETS + 58 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        recordMicros(nanos / 1000);
+    }
+
+    public void recordMicros(long micros) {
+        long value = Math.max(0, micros);
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.incrementAndGet();
+        totalMicros.addAndGet(value);
+        maxMicros.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Adds every count in {@code other} into this histogram.
+     */
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.addAndGet(other.totalCount.get());
+        totalMicros.addAndGet(other.totalMicros.get());
+        maxMicros.accumulateAndGet(other.maxMicros.get(), Math::max);
+    }
+
+    /**
+     * Moves all recorded values into a new histogram and leaves this one empty.
+     * Values recorded concurrently land in either the copy or this histogram, never both.
+     */
+    public LatencyHistogram snapshotAndReset() {
+        LatencyHistogram copy = new LatencyHistogram();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = counts.getAndSet(i, 0);
+            if (count != 0) {
+                copy.counts.set(i, count);
+            }
+        }
+        copy.totalCount.set(totalCount.getAndSet(0));
+        copy.totalMicros.set(totalMicros.getAndSet(0));
+        copy.maxMicros.set(maxMicros.getAndSet(0));
+        return copy;
+    }
+
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    public double getMeanMicros() {
+        long count = totalCount.get();
+        return count == 0 ? 0.0 : (double) totalMicros.get() / count;
+    }
+
+    /**
+     * Returns the latency at the given percentile (0-100) in microseconds, or 0 when empty.
+     */
+    public long getPercentileMicros(double percentile) {
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += counts.get(i);
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueInBucket(i), maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    public double getPercentileMillis(double percentile) {
+        return getPercentileMicros(percentile) / 1000.0;
+    }
+
+    /**
+     * Encodes the non-empty buckets as {@code index:count} pairs separated by commas,
+     * prefixed by the total sum and max, e.g. {@code 1520;980;12:3,40:7}.
+     */
+    public String encode() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(totalMicros.get()).append(';').append(maxMicros.get()).append(';');
+        boolean first = true;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = counts.get(i);
+            if (count != 0) {
+                if (!first) {
+                    sb.append(',');
+                }
+                sb.append(i).append(':').append(count);
+                first = false;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Rebuilds a histogram produced by {@link #encode()}.
+     */
+    public static LatencyHistogram decode(String encoded) {
+        String[] parts = encoded.split(";", -1);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed histogram: " + encoded);
+        }
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        long total = 0;
+        if (!parts[2].isEmpty()) {
+            for (String bucket : parts[2].split(",")) {
+                int sep = bucket.indexOf(':');
+                int index = Integer.parseInt(bucket.substring(0, sep));
+                long count = Long.parseLong(bucket.substring(sep + 1));
+                histogram.counts.set(index, count);
+                total += count;
+            }
+        }
+        histogram.totalCount.set(total);
+        histogram.totalMicros.set(Long.parseLong(parts[0]));
+        histogram.maxMicros.set(Long.parseLong(parts[1]));
+        return histogram;
+    }
+
+    static int bucketIndex(long micros) {
+        if (micros < LINEAR_BUCKETS) {
+            return (int) micros;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+        int subBucket = (int) (micros >>> shift) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueInBucket(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int shift = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+        long subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.socialapp;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coordinates several {@link LoadWorker} processes that together generate write load.
+ *
+ * The coordinator waits for the configured number of workers to connect, gives each one
+ * a slice of the post key space and an equal share of the target rate, and tells all of
+ * them to start after the same delay. The delay is relative and measured on each worker's
+ * own clock, so clock skew between machines does not shift the start. Workers stream their
+ * latency histograms and counters back once per second; since every histogram shares the
+ * same bucket layout, the merged cluster-wide report is exact rather than an average of
+ * per-worker percentiles.
+ *
+ * A worker that disconnects or stops reporting is dropped, and the final report then says
+ * how many workers finished and is marked incomplete.
+ *
+ * Protocol (one line per message over TCP):
+ * <pre>
+ * coordinator -> worker: ASSIGN &lt;sliceIndex&gt; &lt;sliceCount&gt; &lt;opsPerSecond&gt; &lt;durationSeconds&gt; &lt;startDelayMillis&gt;
+ * worker -> coordinator: REPORT &lt;issued&gt; &lt;completed&gt; &lt;errors&gt; &lt;likes&gt; &lt;comments&gt; &lt;substitutedLikes&gt; &lt;encodedHistogram&gt;
+ * worker -> coordinator: DONE
+ * </pre>
+ *
+ * Usage: {@code LoadCoordinator [workers] [totalOpsPerSecond] [durationSeconds] [port]}
+ */
+public class LoadCoordinator {
+    static final int DEFAULT_PORT = 9400;
+    private static final int DEFAULT_WORKERS = 2;
+    private static final double DEFAULT_TOTAL_RATE = 1000;
+    private static final int DEFAULT_DURATION_SECONDS = 60;
+    private static final long START_DELAY_MILLIS = 3000;
+    private static final int REPORT_INTERVAL_SECONDS = 5;
+    private static final int ACCEPT_TIMEOUT_MILLIS = 120_000;
+    private static final int WORKER_SILENCE_TIMEOUT_MILLIS = 15_000;
+    private static final long FINISH_GRACE_MILLIS = 30_000;
+
+    private final int workerCount;
+    private final double totalRate;
+    private final int durationSeconds;
+    private final int port;
+
+    private final Object lock = new Object();
+    private LoadSample interval = LoadSample.empty();
+    private final LoadSample total = LoadSample.empty();
+    private final AtomicInteger finishedWorkers = new AtomicInteger();
+
+    public LoadCoordinator(int workerCount, double totalRate, int durationSeconds, int port) {
+        this.workerCount = workerCount;
+        this.totalRate = totalRate;
+        this.durationSeconds = durationSeconds;
+        this.port = port;
+    }
+
+    public LoadSample run() throws IOException, InterruptedException {
+        List<Socket> workers = new ArrayList<>();
+        try (ServerSocket server = new ServerSocket(port)) {
+            server.setSoTimeout(ACCEPT_TIMEOUT_MILLIS);
+            System.out.println("Waiting for " + workerCount + " workers on port " + port);
+            while (workers.size() < workerCount) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketTimeoutException e) {
+                    for (Socket worker : workers) {
+                        worker.close();
+                    }
+                    throw new IOException("Only " + workers.size() + " of " + workerCount + " workers connected within " +
+                            ACCEPT_TIMEOUT_MILLIS / 1000 + " seconds");
+                }
+                socket.setSoTimeout(WORKER_SILENCE_TIMEOUT_MILLIS);
+                workers.add(socket);
+                System.out.println("Worker " + workers.size() + "/" + workerCount + " connected from " +
+                        socket.getRemoteSocketAddress());
+            }
+        }
+
+        double ratePerWorker = totalRate / workerCount;
+        CountDownLatch finished = new CountDownLatch(workerCount);
+
+        for (int i = 0; i < workerCount; i++) {
+            Socket socket = workers.get(i);
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            out.printf(Locale.ROOT, "ASSIGN %d %d %.3f %d %d%n", i, workerCount, ratePerWorker, durationSeconds,
+                    START_DELAY_MILLIS);
+
+            int sliceIndex = i;
+            Thread reader = new Thread(() -> readReports(sliceIndex, socket, finished), "worker-" + i);
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        System.out.printf(Locale.ROOT, "Started %d workers at %.0f ops/sec each (%.0f ops/sec total) for %d seconds%n",
+                workerCount, ratePerWorker, totalRate, durationSeconds);
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+        reporter.scheduleAtFixedRate(this::reportInterval,
+                START_DELAY_MILLIS + REPORT_INTERVAL_SECONDS * 1000L,
+                REPORT_INTERVAL_SECONDS * 1000L,
+                TimeUnit.MILLISECONDS);
+        try {
+            if (!finished.await(START_DELAY_MILLIS + durationSeconds * 1000L + FINISH_GRACE_MILLIS, TimeUnit.MILLISECONDS)) {
+                System.err.println("Timed out waiting for " + finished.getCount() + " workers to finish");
+            }
+        } finally {
+            reporter.shutdownNow();
+            for (Socket socket : workers) {
+                socket.close();
+            }
+        }
+
+        printFinalReport();
+        return total;
+    }
+
+    private void readReports(int sliceIndex, Socket socket, CountDownLatch finished) {
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.equals("DONE")) {
+                    finishedWorkers.incrementAndGet();
+                    return;
+                }
+                if (line.startsWith("REPORT ")) {
+                    LoadSample sample = parseReport(line);
+                    synchronized (lock) {
+                        interval.merge(sample);
+                        total.merge(sample);
+                    }
+                } else {
+                    System.err.println("Unexpected message from worker " + sliceIndex + ": " + line);
+                }
+            }
+            System.err.println("Worker " + sliceIndex + " disconnected before finishing");
+        } catch (IOException e) {
+            System.err.println("Lost connection to worker " + sliceIndex + ": " + e.getMessage());
+        } finally {
+            finished.countDown();
+        }
+    }
+
+    static String formatReport(LoadSample sample) {
+        return "REPORT " + sample.getIssued() + " " + sample.getCompleted() + " " + sample.getErrors() + " " +
+                sample.getLikes() + " " + sample.getComments() + " " + sample.getSubstitutedLikes() + " " +
+                sample.getLatencies().encode();
+    }
+
+    static LoadSample parseReport(String line) {
+        String[] parts = line.split(" ");
+        if (parts.length != 8) {
+            throw new IllegalArgumentException("Malformed report: " + line);
+        }
+        return new LoadSample(
+                LatencyHistogram.decode(parts[7]),
+                Long.parseLong(parts[1]),
+                Long.parseLong(parts[2]),
+                Long.parseLong(parts[3]),
+                Long.parseLong(parts[4]),
+                Long.parseLong(parts[5]),
+                Long.parseLong(parts[6]));
+    }
+
+    private void reportInterval() {
+        LoadSample sample;
+        synchronized (lock) {
+            sample = interval;
+            interval = LoadSample.empty();
+        }
+        System.out.printf(Locale.ROOT, "[cluster] %.0f ops/sec, p50 %.1f ms, p99 %.1f ms, errors %d%n",
+                sample.getCompleted() / (double) REPORT_INTERVAL_SECONDS,
+                sample.getLatencies().getPercentileMillis(50.0),
+                sample.getP99Millis(),
+                sample.getErrors());
+    }
+
+    private void printFinalReport() {
+        LatencyHistogram latencies = total.getLatencies();
+        int finished = finishedWorkers.get();
+        System.out.println("\n=== CLUSTER-WIDE RESULTS (" + finished + " of " + workerCount + " workers finished" +
+                (finished < workerCount ? ", INCOMPLETE" : "") + ") ===");
+        System.out.println("Issued: " + total.getIssued());
+        System.out.println("Completed: " + total.getCompleted());
+        System.out.println("Errors: " + total.getErrors());
+        System.out.printf(Locale.ROOT, "Mix: %d likes, %d comments (%d in place of a like, %.1f%% of like slots)%n",
+                total.getLikes(), total.getComments(), total.getSubstitutedLikes(),
+                total.getLikeSubstitutionRate() * 100);
+        System.out.printf(Locale.ROOT, "Throughput: %.1f ops/sec%n", total.getCompleted() / (double) durationSeconds);
+        System.out.printf(Locale.ROOT, "Latency ms - mean: %.2f, p50: %.2f, p90: %.2f, p99: %.2f, p99.9: %.2f, max: %.2f%n",
+                latencies.getMeanMicros() / 1000.0,
+                latencies.getPercentileMillis(50.0),
+                latencies.getPercentileMillis(90.0),
+                latencies.getPercentileMillis(99.0),
+                latencies.getPercentileMillis(99.9),
+                latencies.getMaxMicros() / 1000.0);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int workers = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_WORKERS;
+        double totalRate = args.length > 1 ? Double.parseDouble(args[1]) : DEFAULT_TOTAL_RATE;
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_DURATION_SECONDS;
+        int port = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_PORT;
+
+        new LoadCoordinator(workers, totalRate, durationSeconds, port).run();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.socialapp;
+
+/**
+ * Latencies and counters collected by the load generator over one interval.
+ * Samples from different intervals or different generator processes can be merged.
+ *
+ * Besides the totals, a sample records the operation mix: likes and comments issued, and
+ * how many like slots were sent as comments because no unused (user, post) pair was found.
+ */
+public class LoadSample {
+    private final LatencyHistogram latencies;
+    private long issued;
+    private long completed;
+    private long errors;
+    private long likes;
+    private long comments;
+    private long substitutedLikes;
+
+    public LoadSample(LatencyHistogram latencies, long issued, long completed, long errors,
+                      long likes, long comments, long substitutedLikes) {
+        this.latencies = latencies;
+        this.issued = issued;
+        this.completed = completed;
+        this.errors = errors;
+        this.likes = likes;
+        this.comments = comments;
+        this.substitutedLikes = substitutedLikes;
+    }
+
+    public static LoadSample empty() {
+        return new LoadSample(new LatencyHistogram(), 0, 0, 0, 0, 0, 0);
+    }
+
+    public void merge(LoadSample other) {
+        latencies.merge(other.latencies);
+        issued += other.issued;
+        completed += other.completed;
+        errors += other.errors;
+        likes += other.likes;
+        comments += other.comments;
+        substitutedLikes += other.substitutedLikes;
+    }
+
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    public long getIssued() {
+        return issued;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getLikes() {
+        return likes;
+    }
+
+    /**
+     * Returns the comments issued, including those sent in place of a like.
+     */
+    public long getComments() {
+        return comments;
+    }
+
+    public long getSubstitutedLikes() {
+        return substitutedLikes;
+    }
+
+    /**
+     * Returns the fraction of like slots that were sent as comments instead.
+     */
+    public double getLikeSubstitutionRate() {
+        long likeSlots = likes + substitutedLikes;
+        return likeSlots == 0 ? 0.0 : (double) substitutedLikes / likeSlots;
+    }
+
+    public double getErrorRate() {
+        long finished = completed + errors;
+        return finished == 0 ? 0.0 : (double) errors / finished;
+    }
+
+    public double getP99Millis() {
+        return latencies.getPercentileMillis(99.0);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.socialapp;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A write load generator process that takes its slice, rate and start time from a
+ * {@link LoadCoordinator} and streams its measurements back once per second.
+ *
+ * Usage: {@code LoadWorker [coordinatorHost] [port]}
+ */
+public class LoadWorker {
+    private static final long REPORT_INTERVAL_MILLIS = 1000;
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : LoadCoordinator.DEFAULT_PORT;
+
+        // Connect to Cassandra before joining so session setup does not eat into the shared schedule
+        WriteLoadGenerator generator = new WriteLoadGenerator();
+        try (Socket socket = new Socket(host, port);
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+
+            System.out.println("Connected to coordinator at " + host + ":" + port);
+            String assignment = in.readLine();
+            if (assignment == null || !assignment.startsWith("ASSIGN ")) {
+                throw new IOException("Expected ASSIGN from coordinator, got: " + assignment);
+            }
+
+            String[] parts = assignment.split(" ");
+            int sliceIndex = Integer.parseInt(parts[1]);
+            int sliceCount = Integer.parseInt(parts[2]);
+            double opsPerSecond = Double.parseDouble(parts[3]);
+            int durationSeconds = Integer.parseInt(parts[4]);
+            long startDelayMillis = Long.parseLong(parts[5]);
+            // The delay counts from when the assignment arrived, on this machine's clock
+            long startNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(startDelayMillis);
+
+            generator.restrictToSlice(sliceIndex, sliceCount);
+
+            long waitMillis = TimeUnit.NANOSECONDS.toMillis(startNanos - System.nanoTime());
+            if (waitMillis > 0) {
+                Thread.sleep(waitMillis);
+            }
+
+            System.out.println("Starting slice " + sliceIndex + "/" + sliceCount + " at " + opsPerSecond + " ops/sec");
+            generator.drainSample();
+            generator.startAtRate(opsPerSecond);
+
+            long endNanos = startNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+            while (System.nanoTime() < endNanos) {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(endNanos - System.nanoTime());
+                Thread.sleep(Math.min(REPORT_INTERVAL_MILLIS, Math.max(1, remainingMillis)));
+                out.println(LoadCoordinator.formatReport(generator.drainSample()));
+            }
+
+            generator.stopAndDrain(Duration.ofSeconds(5));
+            out.println(LoadCoordinator.formatReport(generator.drainSample()));
+            out.println("DONE");
+            System.out.println("Slice " + sliceIndex + " finished");
+            System.out.println(generator.describeLikeFilter());
+        } finally {
+            generator.close();
+        }
+    }
+}
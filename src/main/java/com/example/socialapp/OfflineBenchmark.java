@@ -0,0 +1,93 @@
+package com.example.socialapp;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the seeder, the write load generator and the analyzer against an
+ * {@link InMemoryDataStore}, so client-side throughput and counter consistency can be
+ * checked without a Cassandra cluster.
+ *
+ * Injected latency and failures are taken from the {@code socialapp.store.*} system
+ * properties described on {@link InMemoryDataStore} and only apply to the load phase;
+ * seeding and analysis run without them. Without injected failures the process exits with
+ * status 1 if the counters do not match the rows they count.
+ *
+ * Usage: {@code OfflineBenchmark [opsPerSecond] [durationSeconds] [seed]}
+ */
+public class OfflineBenchmark {
+    private static final double DEFAULT_RATE = 10_000;
+    private static final int DEFAULT_DURATION_SECONDS = 10;
+    private static final long DEFAULT_SEED = 42L;
+
+    public static void main(String[] args) throws Exception {
+        double opsPerSecond = args.length > 0 ? Double.parseDouble(args[0]) : DEFAULT_RATE;
+        int durationSeconds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_DURATION_SECONDS;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+
+        InMemoryDataStore store = new InMemoryDataStore();
+
+        long seedStart = System.nanoTime();
+        new Seeder(store, new ContentGenerator(seed, Instant.parse("2025-01-01T00:00:00Z"))).seedData();
+        System.out.printf(Locale.ROOT, "Seeding took %.2f s%n", (System.nanoTime() - seedStart) / 1e9);
+
+        WriteLoadGenerator generator = new WriteLoadGenerator(store);
+        boolean consistent;
+        double failureRate;
+        try {
+            store.injectFaultsFromSystemProperties();
+            failureRate = store.getFailureRate();
+            LoadSample sample = generator.runStep(opsPerSecond, Duration.ofSeconds(durationSeconds));
+            store.injectFaults(0, 0, 0.0);
+            LatencyHistogram latencies = sample.getLatencies();
+
+            System.out.println("\n=== OFFLINE WRITE BENCHMARK ===");
+            System.out.printf(Locale.ROOT, "Offered: %.0f ops/sec, achieved: %.0f ops/sec, errors: %d%n",
+                    opsPerSecond, sample.getCompleted() / (double) durationSeconds, sample.getErrors());
+            System.out.printf(Locale.ROOT, "Latency ms - p50: %.3f, p99: %.3f, p99.9: %.3f, max: %.3f%n",
+                    latencies.getPercentileMillis(50.0),
+                    latencies.getPercentileMillis(99.0),
+                    latencies.getPercentileMillis(99.9),
+                    latencies.getMaxMicros() / 1000.0);
+            System.out.printf(Locale.ROOT, "Mix: %d likes, %d comments (%d in place of a like, %.1f%% of like slots)%n",
+                    sample.getLikes(), sample.getComments(), sample.getSubstitutedLikes(),
+                    sample.getLikeSubstitutionRate() * 100);
+            System.out.println(generator.describeLikeFilter());
+
+            consistent = checkCounters(store);
+
+            new DataAnalyzer(store).analyzeData();
+        } finally {
+            generator.close();
+        }
+
+        if (!consistent && failureRate == 0) {
+            System.err.println("Counters do not match their rows although no failures were injected");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Compares post_metrics counters with the rows they count, and the paged scan of
+     * post_likes_by_user with post_likes. With injected failures a row or its counter update
+     * can fail independently, so a mismatch is expected then. Returns true if all match.
+     */
+    private static boolean checkCounters(SocialDataStore store) {
+        long commentRows = store.countCommentsByPost().values().stream().mapToLong(Long::longValue).sum();
+        long likeRows = store.countLikesByPost().values().stream().mapToLong(Long::longValue).sum();
+        long commentCounter = store.sumCommentCounts();
+        long likeCounter = store.sumLikeCounts();
+        AtomicLong scannedLikes = new AtomicLong();
+        store.forEachLikeByUser((userId, postId) -> scannedLikes.incrementAndGet());
+
+        System.out.println("Comments: " + commentRows + " rows, counter " + commentCounter +
+                (commentRows == commentCounter ? " [OK]" : " [MISMATCH]"));
+        System.out.println("Likes: " + likeRows + " rows, counter " + likeCounter +
+                (likeRows == likeCounter ? " [OK]" : " [MISMATCH]"));
+        System.out.println("Likes by user: " + scannedLikes.get() + " rows scanned" +
+                (scannedLikes.get() == likeRows ? " [OK]" : " [MISMATCH]"));
+        return commentRows == commentCounter && likeRows == likeCounter && scannedLikes.get() == likeRows;
+    }
+}
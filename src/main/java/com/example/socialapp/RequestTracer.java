@@ -0,0 +1,357 @@
+package com.example.socialapp;
+
+import com.datastax.oss.driver.api.core.DriverException;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.QueryTrace;
+import com.datastax.oss.driver.api.core.cql.TraceEvent;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Samples Cassandra request tracing and aggregates the fetched {@code system_traces}
+ * sessions and events into a periodic report.
+ *
+ * A fraction of requests is traced at random. Tracing has to be requested before a
+ * request is sent, so a slow request cannot be traced after the fact; instead every
+ * untraced request over the slow threshold forces tracing on the next few requests, which
+ * catches sustained slowdowns. Failed requests count as slow. Forced traces are capped per
+ * second and are skipped while every trace fetch slot is busy, so a struggling cluster is
+ * not also made to write traces nobody reads.
+ *
+ * Traces are fetched asynchronously with a bounded number of fetches in flight. For each
+ * traced request, time between consecutive events on the same node is attributed to the
+ * earlier event's stage (the thread pool that logged it, e.g. {@code MutationStage}), to
+ * its activity and to that node.
+ *
+ * An untraced request costs one random draw, one atomic read and a few counter updates.
+ *
+ * Enabled through system properties {@code socialapp.trace.sampleRate} (0-1) and
+ * {@code socialapp.trace.slowMillis}; {@code socialapp.trace.maxForcedPerSecond} caps
+ * forced traces and {@code socialapp.trace.reportSeconds} sets the report interval.
+ */
+public class RequestTracer implements AutoCloseable {
+    private static final int FORCED_TRACES_PER_SLOW_REQUEST = 5;
+    private static final int MAX_PENDING_FETCHES = 16;
+    private static final int TOP_STAGES = 10;
+    private static final int TOP_ACTIVITIES = 10;
+    private static final int SLOWEST_TRACES = 5;
+    private static final int MAX_ACTIVITY_LENGTH = 80;
+
+    private static final Pattern ADDRESS = Pattern.compile("/?\\d{1,3}(\\.\\d{1,3}){3}(:\\d+)?");
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+    private static final Pattern THREAD_SUFFIX = Pattern.compile("[-:]\\d+$");
+
+    private final double sampleRate;
+    private final long slowThresholdMicros;
+    private final int maxForcedPerSecond;
+    private final ScheduledExecutorService reporter;
+
+    private final AtomicInteger forcedTraces = new AtomicInteger();
+    private final AtomicLong forcedBudgetSecond = new AtomicLong();
+    private final AtomicInteger forcedBudgetUsed = new AtomicInteger();
+    private final Semaphore pendingFetches = new Semaphore(MAX_PENDING_FETCHES);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder traced = new LongAdder();
+    private final LongAdder slow = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+
+    private final Object lock = new Object();
+    private Aggregate aggregate = new Aggregate();
+
+    private static class Stats {
+        long count;
+        long totalMicros;
+        long maxMicros;
+
+        void add(long micros) {
+            count++;
+            totalMicros += micros;
+            maxMicros = Math.max(maxMicros, micros);
+        }
+    }
+
+    private static class SlowTrace {
+        final String label;
+        final String coordinator;
+        final long durationMicros;
+        final String tracingId;
+
+        SlowTrace(String label, String coordinator, long durationMicros, String tracingId) {
+            this.label = label;
+            this.coordinator = coordinator;
+            this.durationMicros = durationMicros;
+            this.tracingId = tracingId;
+        }
+    }
+
+    private static class Aggregate {
+        final Map<String, Stats> byRequest = new HashMap<>();
+        final Map<String, Stats> byStage = new HashMap<>();
+        final Map<String, Stats> byActivity = new HashMap<>();
+        final Map<String, Stats> byReplica = new HashMap<>();
+        final Map<String, Stats> byCoordinator = new HashMap<>();
+        final List<SlowTrace> slowest = new ArrayList<>();
+        long fetched;
+        long fetchErrors;
+    }
+
+    public RequestTracer(double sampleRate, long slowThresholdMicros, int maxForcedPerSecond, Duration reportInterval) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdMicros = slowThresholdMicros;
+        this.maxForcedPerSecond = maxForcedPerSecond;
+        this.reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "request-tracer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(this::report, reportInterval.toMillis(), reportInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns a tracer configured from system properties, or null when tracing is disabled.
+     */
+    public static RequestTracer fromSystemProperties() {
+        double sampleRate = Double.parseDouble(System.getProperty("socialapp.trace.sampleRate", "0"));
+        double slowMillis = Double.parseDouble(System.getProperty("socialapp.trace.slowMillis", "0"));
+        int maxForcedPerSecond = Integer.getInteger("socialapp.trace.maxForcedPerSecond", 10);
+        long reportSeconds = Long.getLong("socialapp.trace.reportSeconds", 10);
+
+        if (sampleRate <= 0 && slowMillis <= 0) {
+            return null;
+        }
+
+        System.out.printf(Locale.ROOT,
+                "Request tracing enabled (sample rate %.4f, slow threshold %.1f ms, at most %d forced traces/sec)%n",
+                sampleRate, slowMillis, maxForcedPerSecond);
+        long slowMicros = slowMillis > 0 ? (long) (slowMillis * 1000) : Long.MAX_VALUE;
+        return new RequestTracer(sampleRate, slowMicros, maxForcedPerSecond, Duration.ofSeconds(reportSeconds));
+    }
+
+    /**
+     * Decides whether the next request should be sent with tracing enabled.
+     */
+    public boolean shouldTrace() {
+        if (forcedTraces.get() > 0 && takeForcedTrace()) {
+            return true;
+        }
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * Claims one pending forced trace if a fetch slot is free and this second's budget
+     * is not spent. A claim that is refused is counted as throttled.
+     */
+    private boolean takeForcedTrace() {
+        int remaining;
+        do {
+            remaining = forcedTraces.get();
+            if (remaining <= 0) {
+                return false;
+            }
+        } while (!forcedTraces.compareAndSet(remaining, remaining - 1));
+
+        if (pendingFetches.availablePermits() == 0 || !takeForcedBudget()) {
+            throttled.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private boolean takeForcedBudget() {
+        long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        long budgetSecond = forcedBudgetSecond.get();
+        if (budgetSecond != second && forcedBudgetSecond.compareAndSet(budgetSecond, second)) {
+            forcedBudgetUsed.set(0);
+        }
+        return forcedBudgetUsed.incrementAndGet() <= maxForcedPerSecond;
+    }
+
+    /**
+     * Records a successfully completed request and, if it was traced, fetches its trace.
+     */
+    public void onComplete(String label, boolean wasTraced, long elapsedNanos, ExecutionInfo executionInfo) {
+        record(label, wasTraced, elapsedNanos / 1000 > slowThresholdMicros, executionInfo);
+    }
+
+    /**
+     * Records a failed request as slow and, if it was traced and the driver reports where it
+     * was executed, fetches its trace.
+     */
+    public void onFailure(String label, boolean wasTraced, long elapsedNanos, Throwable error) {
+        failed.increment();
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        ExecutionInfo executionInfo = cause instanceof DriverException
+                ? ((DriverException) cause).getExecutionInfo()
+                : null;
+        record(label, wasTraced, true, executionInfo);
+    }
+
+    private void record(String label, boolean wasTraced, boolean isSlow, ExecutionInfo executionInfo) {
+        requests.increment();
+        if (isSlow) {
+            slow.increment();
+            if (!wasTraced) {
+                forcedTraces.set(FORCED_TRACES_PER_SLOW_REQUEST);
+            }
+        }
+        if (!wasTraced) {
+            return;
+        }
+
+        traced.increment();
+        if (executionInfo == null) {
+            return;
+        }
+        if (!pendingFetches.tryAcquire()) {
+            dropped.increment();
+            return;
+        }
+        executionInfo.getQueryTraceAsync().whenComplete((trace, error) -> {
+            try {
+                if (error == null) {
+                    aggregate(label, trace);
+                } else {
+                    synchronized (lock) {
+                        aggregate.fetchErrors++;
+                    }
+                }
+            } finally {
+                pendingFetches.release();
+            }
+        });
+    }
+
+    private void aggregate(String label, QueryTrace trace) {
+        String coordinator = hostAddress(trace.getCoordinatorAddress());
+        long durationMicros = trace.getDurationMicros();
+
+        Map<String, List<TraceEvent>> eventsByReplica = trace.getEvents().stream()
+                .collect(Collectors.groupingBy(event -> hostAddress(event.getSourceAddress())));
+
+        synchronized (lock) {
+            aggregate.fetched++;
+            aggregate.byRequest.computeIfAbsent(label, k -> new Stats()).add(durationMicros);
+            aggregate.byCoordinator.computeIfAbsent(coordinator, k -> new Stats()).add(durationMicros);
+
+            eventsByReplica.forEach((replica, events) -> {
+                events.sort(Comparator.comparingInt(TraceEvent::getSourceElapsedMicros));
+                // The last event on a node has no successor to measure against, so it is not sampled
+                for (int i = 0; i + 1 < events.size(); i++) {
+                    TraceEvent event = events.get(i);
+                    long micros = events.get(i + 1).getSourceElapsedMicros() - event.getSourceElapsedMicros();
+                    aggregate.byStage.computeIfAbsent(stageName(event.getThreadName()), k -> new Stats()).add(micros);
+                    aggregate.byActivity.computeIfAbsent(activityName(event.getActivity()), k -> new Stats()).add(micros);
+                    aggregate.byReplica.computeIfAbsent(replica, k -> new Stats()).add(micros);
+                }
+            });
+
+            if (durationMicros > slowThresholdMicros) {
+                aggregate.slowest.add(new SlowTrace(label, coordinator, durationMicros, trace.getTracingId().toString()));
+                aggregate.slowest.sort(Comparator.comparingLong((SlowTrace t) -> t.durationMicros).reversed());
+                if (aggregate.slowest.size() > SLOWEST_TRACES) {
+                    aggregate.slowest.remove(SLOWEST_TRACES);
+                }
+            }
+        }
+    }
+
+    private static String hostAddress(InetSocketAddress address) {
+        return address == null ? "unknown" : address.getAddress().getHostAddress();
+    }
+
+    /**
+     * Returns the thread pool of a trace event's thread, e.g. {@code MutationStage} for
+     * {@code MutationStage-3}.
+     */
+    static String stageName(String threadName) {
+        if (threadName == null) {
+            return "unknown";
+        }
+        return THREAD_SUFFIX.matcher(ADDRESS.matcher(threadName).replaceAll("<node>")).replaceAll("");
+    }
+
+    private static String activityName(String activity) {
+        if (activity == null) {
+            return "unknown";
+        }
+        String name = NUMBER.matcher(ADDRESS.matcher(activity).replaceAll("<node>")).replaceAll("#");
+        return name.length() <= MAX_ACTIVITY_LENGTH ? name : name.substring(0, MAX_ACTIVITY_LENGTH) + "...";
+    }
+
+    /**
+     * Prints the traces aggregated since the previous report and starts a new interval.
+     */
+    public void report() {
+        Aggregate current;
+        synchronized (lock) {
+            current = aggregate;
+            aggregate = new Aggregate();
+        }
+
+        System.out.printf(Locale.ROOT,
+                "%n=== TRACE REPORT: %d requests, %d failed, %d traced, %d slow, %d forced traces throttled, " +
+                "%d traces fetched, %d dropped, %d fetch errors ===%n",
+                requests.sumThenReset(), failed.sumThenReset(), traced.sumThenReset(), slow.sumThenReset(),
+                throttled.sumThenReset(), current.fetched, dropped.sumThenReset(), current.fetchErrors);
+        if (current.fetched == 0) {
+            return;
+        }
+
+        printTable("Request", current.byRequest, Integer.MAX_VALUE);
+        printTable("Coordinator", current.byCoordinator, Integer.MAX_VALUE);
+        printTable("Stage", current.byStage, TOP_STAGES);
+        printTable("Activity", current.byActivity, TOP_ACTIVITIES);
+        printTable("Replica", current.byReplica, Integer.MAX_VALUE);
+
+        if (!current.slowest.isEmpty()) {
+            System.out.println("Slowest traces:");
+            for (SlowTrace t : current.slowest) {
+                System.out.printf(Locale.ROOT, "  %8.2f ms  %-22s via %-15s session %s%n",
+                        t.durationMicros / 1000.0, t.label, t.coordinator, t.tracingId);
+            }
+        }
+    }
+
+    private static void printTable(String title, Map<String, Stats> stats, int limit) {
+        System.out.printf(Locale.ROOT, "%-60s %8s %10s %10s %10s%n", title, "count", "total ms", "avg ms", "max ms");
+        stats.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Stats> e) -> e.getValue().totalMicros).reversed())
+                .limit(limit)
+                .forEach(e -> {
+                    Stats s = e.getValue();
+                    System.out.printf(Locale.ROOT, "  %-58s %8d %10.2f %10.3f %10.3f%n",
+                            e.getKey().length() <= 58 ? e.getKey() : e.getKey().substring(0, 55) + "...",
+                            s.count,
+                            s.totalMicros / 1000.0,
+                            s.totalMicros / 1000.0 / s.count,
+                            s.maxMicros / 1000.0);
+                });
+    }
+
+    @Override
+    public void close() {
+        reporter.shutdownNow();
+        report();
+    }
+}
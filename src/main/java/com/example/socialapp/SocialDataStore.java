@@ -0,0 +1,223 @@
+package com.example.socialapp;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * Data access for the {@code social_media} keyspace used by the seeder, the load generator
+ * and the analyzer.
+ *
+ * Writes are asynchronous and complete once the store has acknowledged them; reads are
+ * synchronous. {@link #open()} picks the backend: a live Cassandra cluster by default, or
+ * an {@link InMemoryDataStore} when the {@code socialapp.store} system property is
+ * {@code memory}.
+ *
+ * Table scans are paged: each {@code scan*} call returns at most {@code pageSize} rows and
+ * an opaque paging state to pass to the next call, which is null once the scan is done.
+ * The limit-based getters page through these scans.
+ */
+public interface SocialDataStore extends AutoCloseable {
+
+    int DEFAULT_PAGE_SIZE = 500;
+
+    /**
+     * One page of a table scan.
+     */
+    class Page<T> {
+        public final List<T> rows;
+        public final String pagingState;
+
+        public Page(List<T> rows, String pagingState) {
+            this.rows = rows;
+            this.pagingState = pagingState;
+        }
+    }
+
+    class UserProfile {
+        public final UUID userId;
+        public final String username;
+        public final String profilePictureUrl;
+
+        public UserProfile(UUID userId, String username, String profilePictureUrl) {
+            this.userId = userId;
+            this.username = username;
+            this.profilePictureUrl = profilePictureUrl;
+        }
+    }
+
+    class PostSummary {
+        public final UUID postId;
+        public final UUID userId;
+        public final String content;
+
+        public PostSummary(UUID postId, UUID userId, String content) {
+            this.postId = postId;
+            this.userId = userId;
+            this.content = content;
+        }
+    }
+
+    class PostMetrics {
+        public final UUID postId;
+        public final long commentCount;
+        public final long likeCount;
+
+        public PostMetrics(UUID postId, long commentCount, long likeCount) {
+            this.postId = postId;
+            this.commentCount = commentCount;
+            this.likeCount = likeCount;
+        }
+    }
+
+    class UserComment {
+        public final UUID userId;
+        public final Instant createdAt;
+
+        public UserComment(UUID userId, Instant createdAt) {
+            this.userId = userId;
+            this.createdAt = createdAt;
+        }
+    }
+
+    class UserLike {
+        public final UUID userId;
+        public final UUID postId;
+        public final Instant createdAt;
+
+        public UserLike(UUID userId, UUID postId, Instant createdAt) {
+            this.userId = userId;
+            this.postId = postId;
+            this.createdAt = createdAt;
+        }
+    }
+
+    static SocialDataStore open() {
+        if ("memory".equals(System.getProperty("socialapp.store"))) {
+            return InMemoryDataStore.fromSystemProperties();
+        }
+        return CassandraDataStore.connect();
+    }
+
+    CompletionStage<Void> insertUser(UUID userId, String username, String fullName, String profilePictureUrl,
+                                     Instant createdAt, boolean isActive);
+
+    CompletionStage<Void> insertPost(UUID postId, UUID userId, String content, Instant createdAt, boolean isDeleted);
+
+    /**
+     * Writes the comment to both {@code comments_by_post} and {@code comments_by_user} atomically.
+     */
+    CompletionStage<Void> insertComment(UUID postId, UUID commentId, UUID userId, String username,
+                                        String userProfilePic, String content, Instant createdAt,
+                                        Instant updatedAt, boolean isDeleted);
+
+    /**
+     * Writes the like to both {@code post_likes} and {@code post_likes_by_user} atomically.
+     */
+    CompletionStage<Void> insertLike(UUID postId, UUID userId, String username, Instant createdAt);
+
+    /**
+     * Creates the {@code post_metrics} row for a post with both counters at zero.
+     */
+    CompletionStage<Void> initPostMetrics(UUID postId);
+
+    CompletionStage<Void> incrementCommentCount(UUID postId, long delta);
+
+    CompletionStage<Void> incrementLikeCount(UUID postId, long delta);
+
+    Page<UserProfile> scanUsers(int pageSize, String pagingState);
+
+    Page<UUID> scanPostIds(int pageSize, String pagingState);
+
+    Page<PostMetrics> scanPostMetrics(int pageSize, String pagingState);
+
+    /**
+     * Scans {@code comments_by_user}, newest comment first within each user.
+     */
+    Page<UserComment> scanCommentsByUser(int pageSize, String pagingState);
+
+    /**
+     * Scans {@code post_likes_by_user}, newest like first within each user.
+     */
+    Page<UserLike> scanLikesByUser(int pageSize, String pagingState);
+
+    default List<UserProfile> getUsers(int limit) {
+        return collect(limit, this::scanUsers);
+    }
+
+    default List<UUID> getPostIds(int limit) {
+        return collect(limit, this::scanPostIds);
+    }
+
+    /**
+     * Returns the post, or null if it does not exist.
+     */
+    PostSummary getPost(UUID postId);
+
+    /**
+     * Returns the user's username, or null if the user does not exist.
+     */
+    String getUsername(UUID userId);
+
+    /**
+     * Returns the post's counters, or null if the post has no {@code post_metrics} row.
+     */
+    PostMetrics getPostMetrics(UUID postId);
+
+    default List<PostMetrics> getPostMetrics(int limit) {
+        return collect(limit, this::scanPostMetrics);
+    }
+
+    default List<UserComment> getCommentsByUser(int limit) {
+        return collect(limit, this::scanCommentsByUser);
+    }
+
+    Map<UUID, Long> countCommentsByPost();
+
+    Map<UUID, Long> countLikesByPost();
+
+    long countUsers();
+
+    long countPosts();
+
+    long sumCommentCounts();
+
+    long sumLikeCounts();
+
+    /**
+     * Calls {@code consumer} with (user_id, post_id) for every row of {@code post_likes_by_user}.
+     */
+    default void forEachLikeByUser(BiConsumer<UUID, UUID> consumer) {
+        String pagingState = null;
+        do {
+            Page<UserLike> page = scanLikesByUser(DEFAULT_PAGE_SIZE, pagingState);
+            page.rows.forEach(like -> consumer.accept(like.userId, like.postId));
+            pagingState = page.pagingState;
+        } while (pagingState != null);
+    }
+
+    /**
+     * Reads pages from {@code scan} until {@code limit} rows are collected or the scan ends.
+     */
+    private static <T> List<T> collect(int limit, BiFunction<Integer, String, Page<T>> scan) {
+        List<T> result = new ArrayList<>();
+        String pagingState = null;
+        while (result.size() < limit) {
+            Page<T> page = scan.apply(Math.min(limit - result.size(), DEFAULT_PAGE_SIZE), pagingState);
+            result.addAll(page.rows);
+            pagingState = page.pagingState;
+            if (pagingState == null) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    void close();
+}
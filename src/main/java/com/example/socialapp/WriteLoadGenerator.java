@@ -1,44 +1,54 @@
 package com.example.socialapp;
 
-import com.datastax.oss.driver.api.core.CqlSession;
-import com.datastax.oss.driver.api.core.cql.BatchStatement;
-import com.datastax.oss.driver.api.core.cql.BatchType;
-import com.datastax.oss.driver.api.core.cql.PreparedStatement;
-import com.datastax.oss.driver.api.core.cql.ResultSet;
-import com.datastax.oss.driver.api.core.cql.Row;
-
-import java.net.InetSocketAddress;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.time.Instant;
 
 /**
  * A high-volume write load generator for Cassandra focused on comments and likes
  */
 public class WriteLoadGenerator {
-    private static final String KEYSPACE = "social_media";
     private static final int COMMENTS_PER_SECOND = 20;
     private static final int LIKES_PER_SECOND = 50;
+    private static final double COMMENT_RATIO = (double) COMMENTS_PER_SECOND / (COMMENTS_PER_SECOND + LIKES_PER_SECOND);
+    private static final long TICK_MICROS = 1000;
+    private static final double LIKE_FILTER_FALSE_POSITIVE_RATE = 0.01;
+    private static final int MAX_LIKE_ATTEMPTS = 5;
     
-    private final CqlSession session;
+    private final SocialDataStore store;
     private final Random random = new Random();
     private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(2);
     private final AtomicInteger commentCounter = new AtomicInteger(0);
     private final AtomicInteger likeCounter = new AtomicInteger(0);
     
-    private PreparedStatement insertCommentByPostStmt;
-    private PreparedStatement insertCommentByUserStmt;
-    private PreparedStatement insertLikeStmt;
-    private PreparedStatement insertLikeByUserStmt;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final AtomicLong issuedCounter = new AtomicLong(0);
+    private final AtomicLong completedCounter = new AtomicLong(0);
+    private final AtomicLong errorCounter = new AtomicLong(0);
+    private final AtomicLong sampleLikes = new AtomicLong(0);
+    private final AtomicLong sampleComments = new AtomicLong(0);
+    private final AtomicLong sampleSubstitutedLikes = new AtomicLong(0);
+    private final AtomicLong inFlight = new AtomicLong(0);
+    private DuplicateLikeFilter likeFilter;
+    private final AtomicLong substitutedLikeCounter = new AtomicLong(0);
+    private ScheduledFuture<?> ticker;
     
     private List<UUID> userIds = new ArrayList<>();
     private UUID[] postIds;
@@ -47,51 +57,26 @@ public class WriteLoadGenerator {
     private Map<UUID, String> userIdToProfilePic = new HashMap<>();
     
     public WriteLoadGenerator() {
-        this.session = CqlSession.builder()
-                .addContactPoint(new InetSocketAddress("localhost", 9042))
-                .withLocalDatacenter("datacenter1")
-                .withKeyspace(KEYSPACE)
-                .build();
-        
-        System.out.println("Connected to Cassandra cluster");
-        
-        prepareStatements();
-        
-        loadUserAndPostIds();
+        this(SocialDataStore.open());
     }
     
-    private void prepareStatements() {
-        insertCommentByPostStmt = session.prepare(
-                "INSERT INTO comments_by_post (post_id, comment_id, user_id, username, user_profile_pic, content, created_at, updated_at, is_deleted) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
-        
-        insertCommentByUserStmt = session.prepare(
-                "INSERT INTO comments_by_user (user_id, comment_id, post_id, content, created_at, is_deleted) " +
-                "VALUES (?, ?, ?, ?, ?, ?)");
-        
-        insertLikeStmt = session.prepare(
-                "INSERT INTO post_likes (post_id, user_id, username, created_at) VALUES (?, ?, ?, ?)");
+    public WriteLoadGenerator(SocialDataStore store) {
+        this.store = store;
         
-        insertLikeByUserStmt = session.prepare(
-                "INSERT INTO post_likes_by_user (user_id, post_id, created_at) VALUES (?, ?, ?)");
+        loadUserAndPostIds();
         
-        System.out.println("Prepared statements");
+        loadExistingLikes();
     }
     
     private void loadUserAndPostIds() {
-        ResultSet userResults = session.execute("SELECT user_id, username, profile_picture_url FROM users LIMIT 1000");
         userIds = new ArrayList<>();
-        for (Row row : userResults) {
-            UUID userId = row.getUuid("user_id");
-            userIds.add(userId);
-            userIdToUsername.put(userId, row.getString("username"));
-            userIdToProfilePic.put(userId, row.getString("profile_picture_url"));
+        for (SocialDataStore.UserProfile user : store.getUsers(1000)) {
+            userIds.add(user.userId);
+            userIdToUsername.put(user.userId, user.username);
+            userIdToProfilePic.put(user.userId, user.profilePictureUrl);
         }
         
-        ResultSet postResults = session.execute("SELECT post_id FROM posts LIMIT 1000");
-        postIds = postResults.all().stream()
-                .map(row -> row.getUuid("post_id"))
-                .toArray(UUID[]::new);
+        postIds = store.getPostIds(1000).toArray(new UUID[0]);
         
         if (userIds.isEmpty() || postIds.length == 0) {
             throw new RuntimeException("No users or posts found in database. Run the seeder first.");
@@ -100,20 +85,51 @@ public class WriteLoadGenerator {
         System.out.println("Loaded " + userIds.size() + " users and " + postIds.length + " posts");
     }
     
+    private void loadExistingLikes() {
+        // Every possible (user, post) pair fits, so the filter stays at its target false-positive rate.
+        // Likes outside the loaded users and posts can never be generated, so they are left out.
+        likeFilter = new DuplicateLikeFilter((long) userIds.size() * postIds.length, LIKE_FILTER_FALSE_POSITIVE_RATE);
+        Set<UUID> loadedPosts = new HashSet<>(Arrays.asList(postIds));
+        
+        AtomicLong loaded = new AtomicLong(0);
+        AtomicLong ignored = new AtomicLong(0);
+        store.forEachLikeByUser((userId, postId) -> {
+            if (userIdToUsername.containsKey(userId) && loadedPosts.contains(postId)) {
+                likeFilter.addIfAbsent(userId, postId);
+                loaded.incrementAndGet();
+            } else {
+                ignored.incrementAndGet();
+            }
+        });
+        
+        System.out.printf("Loaded %d existing likes into duplicate filter, ignored %d outside the loaded users and posts " +
+                "(%.1f KB, est. false-positive rate %.4f%%)%n",
+                loaded.get(),
+                ignored.get(),
+                likeFilter.getMemoryBytes() / 1024.0,
+                likeFilter.getEstimatedFalsePositiveRate() * 100);
+    }
+    
+    /**
+     * Restricts this generator to the posts whose id hashes into {@code sliceIndex} out of
+     * {@code sliceCount} slices, so that several generators write disjoint partitions.
+     */
+    public void restrictToSlice(int sliceIndex, int sliceCount) {
+        postIds = Arrays.stream(postIds)
+                .filter(postId -> Math.floorMod(postId.hashCode(), sliceCount) == sliceIndex)
+                .toArray(UUID[]::new);
+        
+        if (postIds.length == 0) {
+            throw new RuntimeException("Slice " + sliceIndex + "/" + sliceCount + " contains no posts");
+        }
+        
+        System.out.println("Restricted to slice " + sliceIndex + "/" + sliceCount + " with " + postIds.length + " posts");
+    }
+    
     public void startLoadGeneration(Duration duration) {
         System.out.println("Starting write load generation for " + duration.getSeconds() + " seconds");
         
-        executor.scheduleAtFixedRate(
-                this::generateComment,
-                0,
-                1000 / COMMENTS_PER_SECOND,
-                TimeUnit.MILLISECONDS);
-        
-        executor.scheduleAtFixedRate(
-                this::generateLike,
-                0,
-                1000 / LIKES_PER_SECOND,
-                TimeUnit.MILLISECONDS);
+        startAtRate(COMMENTS_PER_SECOND + LIKES_PER_SECOND);
         
         executor.schedule(this::stopLoadGeneration, duration.getSeconds(), TimeUnit.SECONDS);
         
@@ -124,7 +140,97 @@ public class WriteLoadGenerator {
                 TimeUnit.SECONDS);
     }
     
-    private void generateComment() {
+    /**
+     * Starts issuing writes at a fixed offered rate, mixing comments and likes in the
+     * default 20:50 ratio. A 1ms ticker issues every operation that is due, so the
+     * offered load does not back off when the cluster slows down.
+     */
+    public synchronized void startAtRate(double opsPerSecond) {
+        if (ticker != null) {
+            throw new IllegalStateException("Load generation is already running");
+        }
+        
+        long startNanos = System.nanoTime();
+        AtomicLong scheduled = new AtomicLong(0);
+        
+        ticker = executor.scheduleAtFixedRate(() -> {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            long due = (long) (opsPerSecond * elapsedNanos / 1_000_000_000.0);
+            while (scheduled.get() < due) {
+                long index = scheduled.getAndIncrement();
+                // Latency is measured from the intended send time to avoid coordinated omission
+                long intendedNanos = startNanos + (long) (index * 1_000_000_000.0 / opsPerSecond);
+                // Once the like pairs run out, send a comment so the offered rate still holds
+                if (random.nextDouble() < COMMENT_RATIO || !generateLike(intendedNanos)) {
+                    generateComment(intendedNanos);
+                }
+            }
+        }, 0, TICK_MICROS, TimeUnit.MICROSECONDS);
+    }
+    
+    /**
+     * Stops issuing new writes and waits up to {@code timeout} for in-flight writes to finish.
+     */
+    public synchronized void stopAndDrain(Duration timeout) {
+        if (ticker == null) {
+            return;
+        }
+        ticker.cancel(false);
+        ticker = null;
+        
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Returns the latencies and counters recorded since the previous call and resets them.
+     */
+    public LoadSample drainSample() {
+        LatencyHistogram snapshot = latencies.snapshotAndReset();
+        return new LoadSample(
+                snapshot,
+                issuedCounter.getAndSet(0),
+                completedCounter.getAndSet(0),
+                errorCounter.getAndSet(0),
+                sampleLikes.getAndSet(0),
+                sampleComments.getAndSet(0),
+                sampleSubstitutedLikes.getAndSet(0));
+    }
+    
+    /**
+     * Runs one fixed-rate step and returns what was measured during it.
+     */
+    public LoadSample runStep(double opsPerSecond, Duration duration) throws InterruptedException {
+        drainSample();
+        startAtRate(opsPerSecond);
+        Thread.sleep(duration.toMillis());
+        stopAndDrain(Duration.ofSeconds(5));
+        return drainSample();
+    }
+    
+    private void track(long intendedNanos, CompletionStage<?> batch, CompletionStage<?> counterUpdate) {
+        issuedCounter.incrementAndGet();
+        inFlight.incrementAndGet();
+        CompletableFuture.allOf(batch.toCompletableFuture(), counterUpdate.toCompletableFuture())
+                .whenComplete((ignored, error) -> {
+                    latencies.recordNanos(System.nanoTime() - intendedNanos);
+                    if (error == null) {
+                        completedCounter.incrementAndGet();
+                    } else {
+                        errorCounter.incrementAndGet();
+                    }
+                    inFlight.decrementAndGet();
+                });
+    }
+    
+    private void generateComment(long intendedNanos) {
         try {
             UUID commentId = UUID.randomUUID();
             UUID postId = postIds[random.nextInt(postIds.length)];
@@ -149,72 +255,91 @@ public class WriteLoadGenerator {
             String content = commentTemplates[random.nextInt(commentTemplates.length)];
             Instant createdAt = Instant.now();
             
-            BatchStatement batch = BatchStatement.builder(BatchType.LOGGED)
-                .addStatement(insertCommentByPostStmt.bind()
-                    .setUuid(0, postId)
-                    .setUuid(1, commentId)
-                    .setUuid(2, userId)
-                    .setString(3, username)
-                    .setString(4, userProfilePic)
-                    .setString(5, content)
-                    .setInstant(6, createdAt)
-                    .setInstant(7, createdAt)
-                    .setBoolean(8, false))
-                .addStatement(insertCommentByUserStmt.bind()
-                    .setUuid(0, userId)
-                    .setUuid(1, commentId)
-                    .setUuid(2, postId)
-                    .setString(3, content)
-                    .setInstant(4, createdAt)
-                    .setBoolean(5, false))
-                .build();
-            
-            session.executeAsync(batch);
-            session.executeAsync("UPDATE post_metrics SET comment_count = comment_count + 1 WHERE post_id = ?", postId);
+            track(intendedNanos,
+                    store.insertComment(postId, commentId, userId, username, userProfilePic, content, createdAt, createdAt, false),
+                    store.incrementCommentCount(postId, 1));
             
             commentCounter.incrementAndGet();
+            sampleComments.incrementAndGet();
         } catch (Exception e) {
+            errorCounter.incrementAndGet();
             System.err.println("Error generating comment: " + e.getMessage());
         }
     }
     
-    private void generateLike() {
+    /**
+     * Issues a like for a pair that has not been liked yet. Returns false without writing
+     * anything if no unused pair was found within {@link #MAX_LIKE_ATTEMPTS} tries.
+     */
+    private boolean generateLike(long intendedNanos) {
         try {
-            UUID postId = postIds[random.nextInt(postIds.length)];
-            UUID userId = userIds.get(random.nextInt(userIds.size()));
+            // Duplicates would rewrite post_likes, add a second post_likes_by_user row and
+            // double-count like_count, so pick another pair before anything is written.
+            // The pair is recorded before the write, so likes are at-most-once: a pair whose
+            // write fails is never retried, as a Bloom filter cannot remove entries.
+            UUID postId = null;
+            UUID userId = null;
+            for (int attempt = 0; attempt < MAX_LIKE_ATTEMPTS; attempt++) {
+                UUID candidatePost = postIds[random.nextInt(postIds.length)];
+                UUID candidateUser = userIds.get(random.nextInt(userIds.size()));
+                if (likeFilter.addIfAbsent(candidateUser, candidatePost)) {
+                    postId = candidatePost;
+                    userId = candidateUser;
+                    break;
+                }
+            }
+            if (postId == null) {
+                substitutedLikeCounter.incrementAndGet();
+                sampleSubstitutedLikes.incrementAndGet();
+                return false;
+            }
+            
             String username = userIdToUsername.get(userId);
             Instant createdAt = Instant.now();
             
-            BatchStatement batch = BatchStatement.builder(BatchType.LOGGED)
-                .addStatement(insertLikeStmt.bind()
-                    .setUuid(0, postId)
-                    .setUuid(1, userId)
-                    .setString(2, username)
-                    .setInstant(3, createdAt))
-                .addStatement(insertLikeByUserStmt.bind()
-                    .setUuid(0, userId)
-                    .setUuid(1, postId)
-                    .setInstant(2, createdAt))
-                .build();
-            
-            session.executeAsync(batch);
-            session.executeAsync("UPDATE post_metrics SET like_count = like_count + 1 WHERE post_id = ?", postId);
+            track(intendedNanos,
+                    store.insertLike(postId, userId, username, createdAt),
+                    store.incrementLikeCount(postId, 1));
             
             likeCounter.incrementAndGet();
+            sampleLikes.incrementAndGet();
         } catch (Exception e) {
+            errorCounter.incrementAndGet();
             System.err.println("Error generating like: " + e.getMessage());
         }
+        return true;
+    }
+    
+    /**
+     * Summarizes the duplicate like filter: checks, rejections, likes replaced by comments,
+     * memory and estimated false-positive rate.
+     */
+    public String describeLikeFilter() {
+        return String.format(Locale.ROOT, "Duplicate like filter: %d checked, %d rejected, %d likes replaced by comments, " +
+                "%.1f KB, est. false-positive rate %.4f%%",
+                likeFilter.getCheckedCount(),
+                likeFilter.getRejectedCount(),
+                substitutedLikeCounter.get(),
+                likeFilter.getMemoryBytes() / 1024.0,
+                likeFilter.getEstimatedFalsePositiveRate() * 100);
     }
     
     private void reportStats() {
-        System.out.println("Total comments: " + commentCounter.get() + 
-                ", Total likes: " + likeCounter.get() +
-                " (current rates: ~" + COMMENTS_PER_SECOND + " comments/sec, ~" + 
-                LIKES_PER_SECOND + " likes/sec)");
+        LoadSample sample = drainSample();
+        System.out.printf("Total comments: %d, Total likes: %d (current rates: ~%d comments/sec, ~%d likes/sec, " +
+                "p99: %.1f ms, errors: %d)%n",
+                commentCounter.get(),
+                likeCounter.get(),
+                COMMENTS_PER_SECOND,
+                LIKES_PER_SECOND,
+                sample.getP99Millis(),
+                sample.getErrors());
+        System.out.println(describeLikeFilter());
     }
     
     private void stopLoadGeneration() {
         System.out.println("Stopping load generation");
+        stopAndDrain(Duration.ofSeconds(5));
         executor.shutdown();
         try {
             if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
@@ -226,15 +351,14 @@ public class WriteLoadGenerator {
         }
         
         System.out.println("Final stats - Total comments: " + commentCounter.get() + 
-                ", Total likes: " + likeCounter.get());
+                ", Total likes: " + likeCounter.get() +
+                ", Duplicate likes rejected: " + likeFilter.getRejectedCount());
         close();
     }
     
     public void close() {
-        if (session != null && !session.isClosed()) {
-            session.close();
-            System.out.println("Cassandra session closed");
-        }
+        executor.shutdownNow();
+        store.close();
     }
     
     public static void main(String[] args) {
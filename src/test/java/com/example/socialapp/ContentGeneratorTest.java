@@ -0,0 +1,86 @@
+package com.example.socialapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentGeneratorTest {
+    private static final Instant BASE_TIME = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Test
+    void sameSeedGeneratesSameContent() {
+        ContentGenerator first = new ContentGenerator(42, BASE_TIME);
+        ContentGenerator second = new ContentGenerator(42, BASE_TIME);
+
+        for (int i = 0; i < 100; i++) {
+            ContentGenerator.User a = first.user(i);
+            ContentGenerator.User b = second.user(i);
+            assertEquals(a.userId, b.userId);
+            assertEquals(a.username, b.username);
+            assertEquals(a.createdAt, b.createdAt);
+
+            ContentGenerator.Post postA = first.post(i, 100);
+            ContentGenerator.Post postB = second.post(i, 100);
+            assertEquals(postA.postId, postB.postId);
+            assertEquals(postA.authorIndex, postB.authorIndex);
+            assertEquals(postA.content, postB.content);
+
+            ContentGenerator.Comment commentA = first.comment(i, 100, 100);
+            ContentGenerator.Comment commentB = second.comment(i, 100, 100);
+            assertEquals(commentA.commentId, commentB.commentId);
+            assertEquals(commentA.content, commentB.content);
+            assertEquals(commentA.updatedAt, commentB.updatedAt);
+
+            ContentGenerator.Like likeA = first.like(i, 100, 100);
+            ContentGenerator.Like likeB = second.like(i, 100, 100);
+            assertEquals(likeA.postIndex, likeB.postIndex);
+            assertEquals(likeA.userIndex, likeB.userIndex);
+            assertEquals(likeA.createdAt, likeB.createdAt);
+        }
+    }
+
+    @Test
+    void rowsDoNotDependOnGenerationOrder() {
+        ContentGenerator sequential = new ContentGenerator(7, BASE_TIME);
+        for (int i = 0; i < 25; i++) {
+            sequential.comment(i, 10, 10);
+        }
+        ContentGenerator.Comment afterOthers = sequential.comment(25, 10, 10);
+        ContentGenerator.Comment alone = new ContentGenerator(7, BASE_TIME).comment(25, 10, 10);
+
+        assertEquals(alone.commentId, afterOthers.commentId);
+        assertEquals(alone.content, afterOthers.content);
+        assertEquals(alone.createdAt, afterOthers.createdAt);
+    }
+
+    @Test
+    void differentSeedsGenerateDifferentContent() {
+        ContentGenerator first = new ContentGenerator(1, BASE_TIME);
+        ContentGenerator second = new ContentGenerator(2, BASE_TIME);
+
+        assertNotEquals(first.userId(0), second.userId(0));
+        assertNotEquals(first.postId(0), second.postId(0));
+    }
+
+    @Test
+    void likesNeverRepeatAPair() {
+        ContentGenerator generator = new ContentGenerator(42, BASE_TIME);
+        int postCount = 30;
+        int userCount = 17;
+
+        Set<Long> pairs = new HashSet<>();
+        for (int i = 0; i < postCount * userCount; i++) {
+            ContentGenerator.Like like = generator.like(i, postCount, userCount);
+            assertTrue(like.postIndex >= 0 && like.postIndex < postCount);
+            assertTrue(like.userIndex >= 0 && like.userIndex < userCount);
+            assertTrue(pairs.add((long) like.postIndex * userCount + like.userIndex),
+                    "like " + i + " repeats a pair");
+        }
+    }
+}
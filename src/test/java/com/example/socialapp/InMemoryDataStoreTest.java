@@ -0,0 +1,196 @@
+package com.example.socialapp;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryDataStoreTest {
+    private static final Instant BASE_TIME = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final InMemoryDataStore store = new InMemoryDataStore();
+
+    @AfterEach
+    void closeStore() {
+        store.close();
+    }
+
+    private static UUID uuid(int i) {
+        return new UUID(0x5eedL, i);
+    }
+
+    private void insertComment(UUID postId, UUID userId, Instant createdAt) {
+        store.insertComment(postId, UUID.randomUUID(), userId, "user", "pic", "content", createdAt, createdAt, false)
+                .toCompletableFuture().join();
+    }
+
+    @Test
+    void pagedPartitionScanReturnsEveryRowOnce() {
+        for (int i = 0; i < 103; i++) {
+            store.insertUser(uuid(i), "user" + i, "User " + i, "pic", BASE_TIME, true).toCompletableFuture().join();
+        }
+
+        Set<UUID> seen = new HashSet<>();
+        int pages = 0;
+        String pagingState = null;
+        do {
+            SocialDataStore.Page<SocialDataStore.UserProfile> page = store.scanUsers(10, pagingState);
+            assertTrue(page.rows.size() <= 10);
+            for (SocialDataStore.UserProfile user : page.rows) {
+                assertTrue(seen.add(user.userId), "user returned twice: " + user.userId);
+            }
+            pagingState = page.pagingState;
+            pages++;
+        } while (pagingState != null);
+
+        assertEquals(103, seen.size());
+        assertEquals(11, pages);
+        assertEquals(103, store.getUsers(1000).size());
+        assertEquals(25, store.getUsers(25).size());
+    }
+
+    @Test
+    void pagedClusteredScanResumesInsidePartitions() {
+        List<UUID> users = new ArrayList<>();
+        for (int u = 0; u < 5; u++) {
+            users.add(uuid(u));
+            for (int c = 0; c < 7; c++) {
+                insertComment(uuid(100 + c), uuid(u), BASE_TIME.plusSeconds(c * 60L));
+            }
+        }
+
+        List<SocialDataStore.UserComment> all = store.getCommentsByUser(1000);
+        List<SocialDataStore.UserComment> paged = new ArrayList<>();
+        String pagingState = null;
+        do {
+            SocialDataStore.Page<SocialDataStore.UserComment> page = store.scanCommentsByUser(3, pagingState);
+            paged.addAll(page.rows);
+            pagingState = page.pagingState;
+        } while (pagingState != null);
+
+        assertEquals(35, all.size());
+        assertEquals(all.size(), paged.size());
+        for (int i = 0; i < all.size(); i++) {
+            assertEquals(all.get(i).userId, paged.get(i).userId);
+            assertEquals(all.get(i).createdAt, paged.get(i).createdAt);
+        }
+        Set<UUID> seenUsers = new HashSet<>();
+        paged.forEach(comment -> seenUsers.add(comment.userId));
+        assertEquals(new HashSet<>(users), seenUsers);
+    }
+
+    @Test
+    void clusteringIsCreatedAtDescendingWithinEachPartition() {
+        UUID userId = uuid(1);
+        UUID otherUser = uuid(2);
+        int[] offsets = {30, 5, 90, 60, 0, 45};
+        for (int offset : offsets) {
+            insertComment(uuid(10), userId, BASE_TIME.plusSeconds(offset));
+            insertComment(uuid(11), otherUser, BASE_TIME.plusSeconds(offset));
+        }
+
+        Map<UUID, Instant> previous = new HashMap<>();
+        Set<UUID> finished = new HashSet<>();
+        UUID current = null;
+        for (SocialDataStore.UserComment comment : store.getCommentsByUser(1000)) {
+            if (!comment.userId.equals(current)) {
+                assertFalse(finished.contains(comment.userId), "partition rows are not contiguous");
+                if (current != null) {
+                    finished.add(current);
+                }
+                current = comment.userId;
+            }
+            Instant last = previous.put(comment.userId, comment.createdAt);
+            if (last != null) {
+                assertTrue(comment.createdAt.isBefore(last), "created_at is not descending");
+            }
+        }
+
+        List<Instant> likeTimes = new ArrayList<>();
+        for (int offset : offsets) {
+            store.insertLike(uuid(200 + offset), userId, "user", BASE_TIME.plusSeconds(offset)).toCompletableFuture().join();
+        }
+        store.scanLikesByUser(100, null).rows.forEach(like -> likeTimes.add(like.createdAt));
+        for (int i = 1; i < likeTimes.size(); i++) {
+            assertTrue(likeTimes.get(i).isBefore(likeTimes.get(i - 1)), "like created_at is not descending");
+        }
+    }
+
+    @Test
+    void countersStayExactUnderConcurrentIncrements() throws Exception {
+        UUID postId = uuid(1);
+        store.initPostMetrics(postId).toCompletableFuture().join();
+
+        int threads = 8;
+        int incrementsPerThread = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    List<CompletableFuture<Void>> writes = new ArrayList<>();
+                    for (int i = 0; i < incrementsPerThread; i++) {
+                        writes.add(store.incrementLikeCount(postId, 1).toCompletableFuture());
+                        writes.add(store.incrementCommentCount(postId, 2).toCompletableFuture());
+                    }
+                    CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).join();
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        SocialDataStore.PostMetrics metrics = store.getPostMetrics(postId);
+        assertEquals((long) threads * incrementsPerThread, metrics.likeCount);
+        assertEquals(2L * threads * incrementsPerThread, metrics.commentCount);
+        assertEquals(metrics.likeCount, store.sumLikeCounts());
+    }
+
+    @Test
+    void failedWriteIsNotApplied() {
+        store.injectFaults(0, 0, 1.0);
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> store.insertUser(uuid(1), "user", "User", "pic", BASE_TIME, true).toCompletableFuture().join());
+        assertInstanceOf(InMemoryDataStore.InjectedFailureException.class, error.getCause());
+        assertThrows(CompletionException.class,
+                () -> store.insertLike(uuid(2), uuid(1), "user", BASE_TIME).toCompletableFuture().join());
+
+        store.injectFaults(0, 0, 0.0);
+        assertEquals(0, store.countUsers());
+        assertNull(store.getUsername(uuid(1)));
+        assertTrue(store.countLikesByPost().isEmpty());
+        assertTrue(store.scanLikesByUser(10, null).rows.isEmpty());
+    }
+
+    @Test
+    void delayedFailedWriteIsNotApplied() {
+        store.injectFaults(200, 100, 1.0);
+        assertThrows(CompletionException.class,
+                () -> store.incrementLikeCount(uuid(1), 1).toCompletableFuture().join());
+
+        store.injectFaults(0, 0, 0.0);
+        assertNull(store.getPostMetrics(uuid(1)));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.socialapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyHistogramTest {
+    private static final double[] PERCENTILES = {0, 10, 50, 90, 99, 99.9, 100};
+
+    private static void assertSameDistribution(LatencyHistogram expected, LatencyHistogram actual) {
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getMaxMicros(), actual.getMaxMicros());
+        assertEquals(expected.getMeanMicros(), actual.getMeanMicros(), 1e-9);
+        for (double percentile : PERCENTILES) {
+            assertEquals(expected.getPercentileMicros(percentile), actual.getPercentileMicros(percentile),
+                    "p" + percentile);
+        }
+    }
+
+    @Test
+    void mergeMatchesRecordingIntoOneHistogram() {
+        SplittableRandom random = new SplittableRandom(1);
+        LatencyHistogram all = new LatencyHistogram();
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+
+        for (int i = 0; i < 10_000; i++) {
+            long micros = random.nextLong(1, 5_000_000);
+            all.recordMicros(micros);
+            (i % 3 == 0 ? first : second).recordMicros(micros);
+        }
+        first.merge(second);
+
+        assertSameDistribution(all, first);
+    }
+
+    @Test
+    void encodeDecodeRoundTripsExactly() {
+        SplittableRandom random = new SplittableRandom(2);
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 5_000; i++) {
+            histogram.recordMicros(random.nextLong(0, 100_000));
+        }
+        histogram.recordMicros(30_000_000);
+
+        LatencyHistogram decoded = LatencyHistogram.decode(histogram.encode());
+
+        assertSameDistribution(histogram, decoded);
+        assertEquals(histogram.encode(), decoded.encode());
+    }
+
+    @Test
+    void emptyHistogramRoundTrips() {
+        LatencyHistogram decoded = LatencyHistogram.decode(new LatencyHistogram().encode());
+
+        assertEquals(0, decoded.getCount());
+        assertEquals(0, decoded.getPercentileMicros(99));
+    }
+
+    @Test
+    void percentilesStayWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 100_000; micros++) {
+            histogram.recordMicros(micros);
+        }
+
+        assertEquals(50_000, histogram.getPercentileMicros(50), 50_000 * 0.03);
+        assertEquals(99_000, histogram.getPercentileMicros(99), 99_000 * 0.03);
+        assertEquals(100_000, histogram.getMaxMicros());
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.socialapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestTracerTest {
+
+    @Test
+    void forcedTracesStayWithinPerSecondBudget() {
+        int budget = 3;
+        try (RequestTracer tracer = new RequestTracer(0.0, Long.MAX_VALUE, budget, Duration.ofHours(1))) {
+            long start = System.nanoTime();
+            int traced = 0;
+            for (int i = 0; i < 10_000; i++) {
+                tracer.onFailure("insertLike", false, 0, new RuntimeException("overloaded"));
+                if (tracer.shouldTrace()) {
+                    traced++;
+                }
+            }
+            long seconds = Duration.ofNanos(System.nanoTime() - start).getSeconds();
+
+            assertTrue(traced > 0, "a failure should force tracing");
+            assertTrue(traced <= budget * (seconds + 2), "traced " + traced + " requests in " + seconds + "s");
+        }
+    }
+
+    @Test
+    void noTracingWithoutSampleRateOrSlowRequests() {
+        try (RequestTracer tracer = new RequestTracer(0.0, Long.MAX_VALUE, 10, Duration.ofHours(1))) {
+            for (int i = 0; i < 1_000; i++) {
+                tracer.onComplete("insertLike", false, 1_000, null);
+                assertFalse(tracer.shouldTrace());
+            }
+        }
+    }
+
+    @Test
+    void stageIsThreadPoolWithoutSuffix() {
+        assertEquals("MutationStage", RequestTracer.stageName("MutationStage-3"));
+        assertEquals("Native-Transport-Requests", RequestTracer.stageName("Native-Transport-Requests-12"));
+        assertEquals("MessagingService-Incoming-<node>", RequestTracer.stageName("MessagingService-Incoming-/127.0.0.2"));
+        assertEquals("unknown", RequestTracer.stageName(null));
+    }
+}